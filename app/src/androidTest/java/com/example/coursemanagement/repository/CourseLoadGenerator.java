@@ -0,0 +1,291 @@
+package com.example.coursemanagement.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes courses through a {@link CourseRepository} at a fixed rate: adds, renames and
+ * deletes in the given mix. Every add and rename sets a course name used by no other
+ * write, so {@link #onCourses} can tell when a write has reached a listener on another
+ * connection. Only courses whose last write has been seen there are renamed or deleted,
+ * which keeps conflated listener updates from hiding a write.
+ */
+final class CourseLoadGenerator {
+
+    private static final String TAG = "CourseLoadGenerator";
+
+    enum Kind { ADD, UPDATE, DELETE }
+
+    private static final class Pending {
+        final Kind kind;
+        final long sentNanos;
+
+        Pending(Kind kind, long sentNanos) {
+            this.kind = kind;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    private final CourseRepository repository;
+    private final int addPercent;
+    private final int updatePercent;
+    private final Random random;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private final Map<Kind, LatencyHistogram> ackLatency = new EnumMap<>(Kind.class);
+    private final Map<Kind, LatencyHistogram> propagationLatency = new EnumMap<>(Kind.class);
+    // Course name of each add or rename not yet seen by the listener
+    private final Map<String, Pending> pendingNames = new ConcurrentHashMap<>();
+    // Ids of deletes the listener still lists
+    private final Map<String, Pending> pendingDeletes = new ConcurrentHashMap<>();
+    // Courses whose last write the listener has seen, guarded by itself
+    private final List<String> settledIds = new ArrayList<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /** {@code addPercent} and {@code updatePercent} of the writes are adds and renames; the rest delete. */
+    CourseLoadGenerator(@NonNull CourseRepository repository, int addPercent, int updatePercent, long seed) {
+        this.repository = repository;
+        this.addPercent = addPercent;
+        this.updatePercent = updatePercent;
+        this.random = new Random(seed);
+        for (Kind kind : Kind.values()) {
+            ackLatency.put(kind, new LatencyHistogram());
+            propagationLatency.put(kind, new LatencyHistogram());
+        }
+    }
+
+    /** Adds {@code count} courses, at most 50 in flight, and waits for their acknowledgements. */
+    void seed(int count, long timeoutMs) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(count);
+        final Semaphore window = new Semaphore(50);
+        for (int i = 0; i < count; i++) {
+            window.acquire();
+            repository.addCourse(course("", "seed-" + i), new CourseRepository.OperationCallback<String>() {
+                @Override
+                public void onSuccess(String id) {
+                    synchronized (settledIds) {
+                        settledIds.add(id);
+                    }
+                    window.release();
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    Log.e(TAG, "seed: Failed to add course", e);
+                    failures.incrementAndGet();
+                    window.release();
+                    done.countDown();
+                }
+            });
+        }
+        if (!done.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Seeding timed out with " + done.getCount() + " of " + count + " unacknowledged");
+        }
+        Log.i(TAG, "seed: Added " + count + " courses");
+    }
+
+    /** Sends {@code writesPerSecond} writes for {@code durationMs}, then returns without waiting for them. */
+    void run(int writesPerSecond, long durationMs) throws InterruptedException {
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / writesPerSecond;
+        scheduler.scheduleAtFixedRate(this::write, 0, periodNanos, TimeUnit.NANOSECONDS);
+        Thread.sleep(durationMs);
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        Log.i(TAG, "run: Sent " + sequence.get() + " writes in " + durationMs + "ms");
+    }
+
+    /** Waits until every write is acknowledged and seen by the listener; false on timeout. */
+    boolean awaitSettled(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        synchronized (this) {
+            while (inFlight.get() > 0 || !pendingNames.isEmpty() || !pendingDeletes.isEmpty()) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                wait(Math.min(remainingMs, 100));
+            }
+        }
+        return true;
+    }
+
+    /** Feed with every list delivered to a listener on another connection. */
+    void onCourses(@NonNull List<Course> courses) {
+        long now = System.nanoTime();
+        Set<String> ids = new HashSet<>(courses.size() * 4 / 3 + 1);
+        for (Course course : courses) {
+            ids.add(course.getId());
+            Pending pending = pendingNames.remove(course.getCourseName());
+            if (pending != null) {
+                propagationLatency.get(pending.kind).record(now - pending.sentNanos);
+                synchronized (settledIds) {
+                    settledIds.add(course.getId());
+                }
+            }
+        }
+        for (Map.Entry<String, Pending> delete : pendingDeletes.entrySet()) {
+            if (!ids.contains(delete.getKey()) && pendingDeletes.remove(delete.getKey()) != null) {
+                propagationLatency.get(Kind.DELETE).record(now - delete.getValue().sentNanos);
+            }
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    int getWriteCount() {
+        return sequence.get();
+    }
+
+    int getFailureCount() {
+        return failures.get();
+    }
+
+    @NonNull
+    LatencyHistogram getAckLatency(@NonNull Kind kind) {
+        return ackLatency.get(kind);
+    }
+
+    @NonNull
+    LatencyHistogram getPropagationLatency(@NonNull Kind kind) {
+        return propagationLatency.get(kind);
+    }
+
+    @NonNull
+    String report() {
+        StringBuilder report = new StringBuilder();
+        for (Kind kind : Kind.values()) {
+            report.append(kind).append(" ack: ").append(ackLatency.get(kind).format()).append('\n')
+                    .append(kind).append(" propagation: ").append(propagationLatency.get(kind).format()).append('\n');
+        }
+        return report.append("failures: ").append(failures.get()).toString();
+    }
+
+    // Scheduler thread
+    private void write() {
+        int roll = random.nextInt(100);
+        String id = roll < addPercent ? null : takeSettled();
+        if (id == null) {
+            add();
+        } else if (roll < addPercent + updatePercent) {
+            update(id);
+        } else {
+            delete(id);
+        }
+    }
+
+    private void add() {
+        final String name = "load-" + sequence.incrementAndGet();
+        final long sent = System.nanoTime();
+        pendingNames.put(name, new Pending(Kind.ADD, sent));
+        inFlight.incrementAndGet();
+        repository.addCourse(course("", name), new CourseRepository.OperationCallback<String>() {
+            @Override
+            public void onSuccess(String id) {
+                acked(Kind.ADD, sent);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                failed("add", e, () -> pendingNames.remove(name));
+            }
+        });
+    }
+
+    private void update(@NonNull String id) {
+        final String name = "load-" + sequence.incrementAndGet();
+        final long sent = System.nanoTime();
+        pendingNames.put(name, new Pending(Kind.UPDATE, sent));
+        inFlight.incrementAndGet();
+        repository.updateCourse(course(id, name), new CourseRepository.OperationCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                acked(Kind.UPDATE, sent);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                failed("update", e, () -> pendingNames.remove(name));
+            }
+        });
+    }
+
+    private void delete(@NonNull final String id) {
+        sequence.incrementAndGet();
+        final long sent = System.nanoTime();
+        pendingDeletes.put(id, new Pending(Kind.DELETE, sent));
+        inFlight.incrementAndGet();
+        repository.deleteCourse(id, new CourseRepository.OperationCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                acked(Kind.DELETE, sent);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                failed("delete", e, () -> pendingDeletes.remove(id));
+            }
+        });
+    }
+
+    private void acked(@NonNull Kind kind, long sentNanos) {
+        ackLatency.get(kind).record(System.nanoTime() - sentNanos);
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    private void failed(@NonNull String operation, @NonNull Exception e, @NonNull Runnable forget) {
+        Log.e(TAG, "write: Failed to " + operation + " course", e);
+        failures.incrementAndGet();
+        forget.run();
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    private String takeSettled() {
+        synchronized (settledIds) {
+            if (settledIds.isEmpty()) {
+                return null;
+            }
+            // Swap-remove; order does not matter
+            int index = random.nextInt(settledIds.size());
+            String id = settledIds.get(index);
+            settledIds.set(index, settledIds.get(settledIds.size() - 1));
+            settledIds.remove(settledIds.size() - 1);
+            return id;
+        }
+    }
+
+    // Course codes are unique, so each write claims one of its own
+    @NonNull
+    private static Course course(@NonNull String id, @NonNull String name) {
+        return new Course(id, name, name.toUpperCase(Locale.ROOT), 3, CourseType.THEORY, 0L);
+    }
+}
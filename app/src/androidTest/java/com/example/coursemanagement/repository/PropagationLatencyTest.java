@@ -0,0 +1,143 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursemanagement.model.Course;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.database.FirebaseDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-acknowledgement and propagation latency through {@link CourseRepository} against
+ * the Realtime Database emulator. One connection writes, a second one listens, as two
+ * devices would. Skipped when the emulator is not reachable. Start it with
+ * {@code firebase emulators:start --only database} and tune the run with instrumentation
+ * arguments: {@code emulatorHost}, {@code emulatorPort}, {@code seedCourses},
+ * {@code writesPerSecond}, {@code durationSeconds}. Percentiles are logged and reported
+ * as instrumentation status; the test fails only if a write is lost or fails.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PropagationLatencyTest {
+
+    private static final String TAG = "PropagationLatencyTest";
+
+    private FirebaseDatabase writerDatabase;
+    private FirebaseDatabase readerDatabase;
+    private CourseDataSource.Registration registration;
+
+    @Before
+    public void setUp() throws Exception {
+        String host = argument("emulatorHost", "10.0.2.2");
+        int port = Integer.parseInt(argument("emulatorPort", "9000"));
+        assumeTrue("Database emulator not reachable at " + host + ":" + port, isReachable(host, port));
+
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // Separate apps get separate connections, like two devices
+        writerDatabase = emulatorDatabase(context, "loadWriter", host, port);
+        readerDatabase = emulatorDatabase(context, "loadReader", host, port);
+        Tasks.await(writerDatabase.getReference().setValue(null), 30, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        if (registration != null) {
+            registration.remove();
+        }
+    }
+
+    @Test
+    public void writesReachAnotherConnectionAtTheConfiguredRate() throws Exception {
+        int seedCourses = Integer.parseInt(argument("seedCourses", "500"));
+        int writesPerSecond = Integer.parseInt(argument("writesPerSecond", "20"));
+        long durationMs = TimeUnit.SECONDS.toMillis(Long.parseLong(argument("durationSeconds", "30")));
+
+        CourseRepository writer = new CourseRepository(new FirebaseCourseDataSource(writerDatabase));
+        CourseRepository reader = new CourseRepository(new FirebaseCourseDataSource(readerDatabase));
+        final CourseLoadGenerator generator = new CourseLoadGenerator(writer, 50, 30, 42);
+        generator.seed(seedCourses, TimeUnit.MINUTES.toMillis(2));
+
+        final CountDownLatch seeded = new CountDownLatch(1);
+        final int seedCount = seedCourses;
+        registration = reader.observeAllCourses(new CourseRepository.CoursesListener() {
+            @Override
+            public void onCoursesUpdated(@NonNull List<Course> courses) {
+                generator.onCourses(courses);
+                if (courses.size() >= seedCount) {
+                    seeded.countDown();
+                }
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "Reader listener cancelled", e);
+            }
+        });
+        assertTrue("Reader never saw the seeded catalog", seeded.await(2, TimeUnit.MINUTES));
+
+        generator.run(writesPerSecond, durationMs);
+        boolean settled = generator.awaitSettled(TimeUnit.MINUTES.toMillis(1));
+
+        String report = seedCourses + " seeded, " + generator.getWriteCount() + " writes at "
+                + writesPerSecond + "/s\n" + generator.report();
+        Log.i(TAG, report);
+        Bundle status = new Bundle();
+        status.putString("latency", report);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+
+        assertEquals(0, generator.getFailureCount());
+        assertTrue("Writes still unacknowledged or unseen after a minute", settled);
+    }
+
+    @NonNull
+    private static FirebaseDatabase emulatorDatabase(@NonNull Context context, @NonNull String name,
+                                                     @NonNull String host, int port) {
+        FirebaseApp app;
+        try {
+            app = FirebaseApp.getInstance(name);
+        } catch (IllegalStateException e) {
+            app = FirebaseApp.initializeApp(context, FirebaseApp.getInstance().getOptions(), name);
+        }
+        FirebaseDatabase database = FirebaseDatabase.getInstance(app);
+        try {
+            database.useEmulator(host, port);
+        } catch (IllegalStateException e) {
+            // Already in use from an earlier test in this process, and already pointed at the emulator
+        }
+        return database;
+    }
+
+    private static boolean isReachable(@NonNull String host, int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), 2000);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @NonNull
+    private static String argument(@NonNull String key, @NonNull String defaultValue) {
+        return InstrumentationRegistry.getArguments().getString(key, defaultValue);
+    }
+}
@@ -5,19 +5,36 @@ import android.util.Log;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.metrics.performance.JankStats;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 
+import com.example.coursemanagement.adapter.CourseViewPool;
 import com.example.coursemanagement.databinding.ActivityMainBinding;
+import com.example.coursemanagement.repository.CachePolicy;
+import com.example.coursemanagement.repository.CacheWarmer;
+import com.example.coursemanagement.repository.CourseRepository;
+import com.example.coursemanagement.repository.CourseSyncWorker;
+import com.example.coursemanagement.repository.RepositoryMetrics;
+import com.example.coursemanagement.ui.debug.PerformanceReport;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.database.FirebaseDatabase;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
 public class MainActivity extends AppCompatActivity {
 
     private static final String TAG = "MainActivity";
 
     private ActivityMainBinding binding;
+    // Course rows outlive HomeFragment's view but not the activity whose context they hold
+    private final CourseViewPool courseViewPool = new CourseViewPool();
+    // Debug builds only
+    private JankStats jankStats;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -25,8 +42,19 @@ public class MainActivity extends AppCompatActivity {
             Log.d(TAG, "onCreate: Starting MainActivity initialization");
             super.onCreate(savedInstanceState);
 
+            if (BuildConfig.DEBUG) {
+                // Before Firebase so its persistence setup on the main thread is reported
+                PerformanceReport.getInstance().enableStrictMode();
+            }
             initializeFirebase();
+            CourseRepository.getInstance().getSubscriptions().setLeakDetectionEnabled(BuildConfig.DEBUG);
             setupUI();
+            if (BuildConfig.DEBUG) {
+                jankStats = PerformanceReport.getInstance().trackFrames(getWindow());
+            }
+            new CacheWarmer(CourseRepository.getInstance(), CachePolicy.DEFAULT).start();
+            CourseRepository.getInstance().migrateSummariesIfNeeded();
+            CourseSyncWorker.schedule(this);
 
             Log.i(TAG, "onCreate: MainActivity initialization completed successfully");
         } catch (Exception e) {
@@ -50,8 +78,10 @@ public class MainActivity extends AppCompatActivity {
             Log.d(TAG, "initializeFirebase: Firebase App initialized: " + (firebaseApp != null ? firebaseApp.getName() : "default"));
 
             try {
-                FirebaseDatabase.getInstance().setPersistenceEnabled(true);
-                Log.d(TAG, "initializeFirebase: Firebase Database persistence enabled");
+                // Must be applied before the database is first used; a background sync may have done it already
+                CachePolicy.DEFAULT.configure(FirebaseDatabase.getInstance());
+                Log.d(TAG, "initializeFirebase: Firebase Database persistence enabled, cache "
+                        + CachePolicy.DEFAULT.getCacheSizeBytes() + " bytes");
             } catch (Exception e) {
                 Log.e(TAG, "initializeFirebase: Error enabling Firebase persistence", e);
                 throw new Exception("Failed to enable Firebase persistence: " + e.getMessage(), e);
@@ -107,6 +137,11 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    @NonNull
+    public CourseViewPool getCourseViewPool() {
+        return courseViewPool;
+    }
+
     private void showCriticalError(@NonNull String message, @NonNull Exception exception) {
         try {
             String fullMessage = message + ": " + exception.getMessage();
@@ -117,10 +152,49 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Appends repository metrics, live subscriptions and, in debug builds, frame and StrictMode
+     * reports to {@code adb shell dumpsys activity com.example.coursemanagement/.MainActivity};
+     * pass {@code --reset-metrics} to clear them afterwards.
+     */
+    @Override
+    public void dump(@NonNull String prefix, @Nullable FileDescriptor fd, @NonNull PrintWriter writer, @Nullable String[] args) {
+        super.dump(prefix, fd, writer, args);
+        CourseRepository repository = CourseRepository.getInstance();
+        RepositoryMetrics metrics = repository.getMetrics();
+        metrics.dump(writer);
+        repository.getSubscriptions().dump(writer);
+        repository.getWriteTraces().dump(writer);
+        PerformanceReport.getInstance().dump(writer);
+        writer.println("Course row pool: " + courseViewPool.getPooledCount() + " pooled, capacity " + courseViewPool.getCapacity());
+        if (args != null && Arrays.asList(args).contains("--reset-metrics")) {
+            metrics.reset();
+            PerformanceReport.getInstance().reset();
+            writer.println("Repository metrics and performance report reset");
+        }
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (jankStats != null) {
+            jankStats.setTrackingEnabled(true);
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (jankStats != null) {
+            jankStats.setTrackingEnabled(false);
+        }
+    }
+
     @Override
     protected void onDestroy() {
         try {
             Log.d(TAG, "onDestroy: Cleaning up MainActivity");
+            courseViewPool.release();
             super.onDestroy();
         } catch (Exception e) {
             Log.e(TAG, "onDestroy: Error during cleanup", e);
@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
@@ -12,10 +13,15 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.coursemanagement.databinding.ItemCourseBinding;
 import com.example.coursemanagement.model.Course;
 
+import java.util.List;
+
 public class CourseAdapter extends ListAdapter<Course, CourseAdapter.CourseViewHolder> {
 
     private static final String TAG = "CourseAdapter";
 
+    // Single row layout; rows are shared through CourseViewPool under this type
+    static final int VIEW_TYPE_COURSE = 0;
+
     public interface OnEditClickListener {
         void onEditClick(@NonNull Course course);
     }
@@ -24,12 +30,21 @@ public class CourseAdapter extends ListAdapter<Course, CourseAdapter.CourseViewH
         void onDeleteClick(@NonNull Course course);
     }
 
+    public interface OnRowBoundListener {
+        void onRowBound(@NonNull Course course);
+    }
+
     @NonNull
     private final OnEditClickListener onEditClick;
 
     @NonNull
     private final OnDeleteClickListener onDeleteClick;
 
+    private final CourseRowText rowText = new CourseRowText();
+
+    @Nullable
+    private OnRowBoundListener onRowBound;
+
     public CourseAdapter(@NonNull OnEditClickListener onEditClick,
                          @NonNull OnDeleteClickListener onDeleteClick) {
         super(new CourseDiffCallback());
@@ -42,14 +57,22 @@ public class CourseAdapter extends ListAdapter<Course, CourseAdapter.CourseViewH
         }
     }
 
+    public void setOnRowBoundListener(@Nullable OnRowBoundListener onRowBound) {
+        this.onRowBound = onRowBound;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_COURSE;
+    }
+
+    // May run on CourseViewPool's background thread
     @NonNull
     @Override
     public CourseViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         try {
             Log.d(TAG, "onCreateViewHolder: Creating new CourseViewHolder");
-            LayoutInflater inflater = LayoutInflater.from(parent.getContext());
-            ItemCourseBinding binding = ItemCourseBinding.inflate(inflater, parent, false);
-            return new CourseViewHolder(binding);
+            return inflateHolder(parent, rowText);
         } catch (Exception e) {
             Log.e(TAG, "onCreateViewHolder: Error creating ViewHolder", e);
             throw new RuntimeException("Failed to create CourseViewHolder: " + e.getMessage(), e);
@@ -61,33 +84,57 @@ public class CourseAdapter extends ListAdapter<Course, CourseAdapter.CourseViewH
         try {
             Course course = getItem(position);
             Log.d(TAG, "onBindViewHolder: Binding course at position " + position + ": " + course.getCourseName());
-            holder.bind(course);
+            // Pooled rows may come from another adapter, so this may be the first row seen
+            rowText.captureParams(holder.binding);
+            rowText.precomputeAhead(getCurrentList(), position + 1);
+            holder.bind(course, rowText, onEditClick, onDeleteClick);
+            if (onRowBound != null) {
+                onRowBound.onRowBound(course);
+            }
         } catch (Exception e) {
             Log.e(TAG, "onBindViewHolder: Error binding ViewHolder at position " + position, e);
         }
     }
 
-    class CourseViewHolder extends RecyclerView.ViewHolder {
+    // Shared with WindowedCourseAdapter so both create rows the pool can hand to either
+    @NonNull
+    static CourseViewHolder inflateHolder(@NonNull ViewGroup parent, @NonNull CourseRowText rowText) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        ItemCourseBinding binding = ItemCourseBinding.inflate(inflater, parent, false);
+        rowText.captureParams(binding);
+        return new CourseViewHolder(binding);
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<Course> previousList, @NonNull List<Course> currentList) {
+        rowText.onListChanged(currentList);
+    }
+
+    // Static so a pooled row created for one adapter can be bound by another
+    static class CourseViewHolder extends RecyclerView.ViewHolder {
 
-        private final ItemCourseBinding binding;
+        final ItemCourseBinding binding;
 
         CourseViewHolder(@NonNull ItemCourseBinding binding) {
             super(binding.getRoot());
             this.binding = binding;
         }
 
-        void bind(@NonNull final Course course) {
+        void bind(@NonNull final Course course,
+                  @NonNull CourseRowText rowText,
+                  @NonNull final OnEditClickListener onEditClick,
+                  @NonNull final OnDeleteClickListener onDeleteClick) {
             try {
                 Log.d(TAG, "CourseViewHolder.bind: Binding course data: " + course.getCourseName());
 
                 try {
-                    binding.tvCourseName.setText(course.getCourseName());
-                    binding.tvCourseCode.setText(course.getCourseCode());
-                    binding.tvCreditHours.setText("Credit Hours: " + course.getCreditHours());
+                    rowText.bind(binding, course);
                     binding.chipCourseType.setText(course.getCourseType());
                 } catch (Exception e) {
                     Log.e(TAG, "CourseViewHolder.bind: Error setting text fields", e);
                 }
+                binding.btnEdit.setEnabled(true);
+                binding.btnDelete.setEnabled(true);
 
                 binding.btnEdit.setOnClickListener(v -> {
                     try {
@@ -110,6 +157,18 @@ public class CourseAdapter extends ListAdapter<Course, CourseAdapter.CourseViewH
                 Log.e(TAG, "CourseViewHolder.bind: Error binding course data", e);
             }
         }
+
+        /** An empty, inert row for a course that is still being read from disk. */
+        void bindPlaceholder() {
+            binding.tvCourseName.setText(null);
+            binding.tvCourseCode.setText(null);
+            binding.tvCreditHours.setText(null);
+            binding.chipCourseType.setText(null);
+            binding.btnEdit.setOnClickListener(null);
+            binding.btnDelete.setOnClickListener(null);
+            binding.btnEdit.setEnabled(false);
+            binding.btnDelete.setEnabled(false);
+        }
     }
 
     private static class CourseDiffCallback extends DiffUtil.ItemCallback<Course> {
@@ -117,7 +176,7 @@ public class CourseAdapter extends ListAdapter<Course, CourseAdapter.CourseViewH
         @Override
         public boolean areItemsTheSame(@NonNull Course oldItem, @NonNull Course newItem) {
             try {
-                boolean result = (oldItem.getId() != null ? oldItem.getId().equals(newItem.getId()) : newItem.getId() == null);
+                boolean result = CourseDiff.sameItem(oldItem, newItem);
                 Log.d(TAG, "CourseDiffCallback.areItemsTheSame: "
                         + oldItem.getCourseName() + " vs " + newItem.getCourseName() + " = " + result);
                 return result;
@@ -130,7 +189,7 @@ public class CourseAdapter extends ListAdapter<Course, CourseAdapter.CourseViewH
         @Override
         public boolean areContentsTheSame(@NonNull Course oldItem, @NonNull Course newItem) {
             try {
-                boolean result = oldItem.equals(newItem);
+                boolean result = CourseDiff.sameContents(oldItem, newItem);
                 Log.d(TAG, "CourseDiffCallback.areContentsTheSame: "
                         + oldItem.getCourseName() + " vs " + newItem.getCourseName() + " = " + result);
                 return result;
@@ -0,0 +1,27 @@
+package com.example.coursemanagement.adapter;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+
+/**
+ * Item and content comparisons behind {@link CourseAdapter}'s diff callback, kept free
+ * of Android types so they can be benchmarked on the JVM.
+ */
+final class CourseDiff {
+
+    private CourseDiff() {
+    }
+
+    static boolean sameItem(@NonNull Course oldItem, @NonNull Course newItem) {
+        if (oldItem == newItem) {
+            return true;
+        }
+        return oldItem.getId() != null ? oldItem.getId().equals(newItem.getId()) : newItem.getId() == null;
+    }
+
+    // Courses are immutable and the repository reuses unchanged instances
+    static boolean sameContents(@NonNull Course oldItem, @NonNull Course newItem) {
+        return oldItem == newItem || oldItem.equals(newItem);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.coursemanagement.adapter;
+
+import android.os.Process;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import com.example.coursemanagement.databinding.ItemCourseBinding;
+import com.example.coursemanagement.model.Course;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Text layouts for course rows, measured on a background thread ahead of the rows being
+ * bound: when a list arrives, and then a window ahead of each bind, the row texts are run
+ * through {@link PrecomputedTextCompat} and cached by string, so bind attaches a finished
+ * layout instead of measuring on the main thread. Text that is not ready yet is set as a
+ * plain string. The course type chip is left out; {@code Chip} draws its text itself.
+ */
+final class CourseRowText {
+
+    private static final String TAG = "CourseRowText";
+
+    // Rows measured ahead of the last bound position; about two screens
+    static final int PRECOMPUTE_AHEAD = 20;
+    private static final int MAX_CACHED_TEXTS = 300;
+
+    private static final Executor WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LruCache<String, PrecomputedTextCompat> names = new LruCache<>(MAX_CACHED_TEXTS);
+    private final LruCache<String, PrecomputedTextCompat> codes = new LruCache<>(MAX_CACHED_TEXTS);
+    // Few distinct values; one entry per credit-hour count
+    private final LruCache<String, PrecomputedTextCompat> creditHours = new LruCache<>(32);
+
+    // Read from the first row seen; every row comes from item_course, so one set fits all
+    @Nullable
+    private volatile Params params;
+    // Main thread only: last position already queued for the current list
+    private int queuedThrough = -1;
+
+    private static final class Params {
+        final PrecomputedTextCompat.Params name;
+        final PrecomputedTextCompat.Params code;
+        final PrecomputedTextCompat.Params creditHours;
+
+        Params(@NonNull ItemCourseBinding binding) {
+            this.name = TextViewCompat.getTextMetricsParams(binding.tvCourseName);
+            this.code = TextViewCompat.getTextMetricsParams(binding.tvCourseCode);
+            this.creditHours = TextViewCompat.getTextMetricsParams(binding.tvCreditHours);
+        }
+    }
+
+    @NonNull
+    static String creditHoursText(@NonNull Course course) {
+        return "Credit Hours: " + course.getCreditHours();
+    }
+
+    /** Safe from any thread; only the first call has an effect. */
+    void captureParams(@NonNull ItemCourseBinding binding) {
+        if (params == null) {
+            params = new Params(binding);
+        }
+    }
+
+    void onListChanged(@NonNull List<Course> courses) {
+        onListChanged(courses, 0);
+    }
+
+    /** A new list whose first visible row is {@code from}, such as a window that moved. */
+    void onListChanged(@NonNull List<Course> courses, int from) {
+        queuedThrough = from - 1;
+        precomputeAhead(courses, from);
+    }
+
+    /** Queues rows {@code from} .. {@code from + PRECOMPUTE_AHEAD} that are not queued yet. */
+    void precomputeAhead(@NonNull List<Course> courses, int from) {
+        final Params current = params;
+        if (current == null) {
+            return;
+        }
+        int start = Math.max(from, queuedThrough + 1);
+        int end = Math.min(courses.size(), from + PRECOMPUTE_AHEAD);
+        if (start >= end) {
+            return;
+        }
+        queuedThrough = end - 1;
+        final List<Course> batch = new ArrayList<>(courses.subList(start, end));
+        WORKER.execute(() -> {
+            for (Course course : batch) {
+                precompute(names, course.getCourseName(), current.name);
+                precompute(codes, course.getCourseCode(), current.code);
+                precompute(creditHours, creditHoursText(course), current.creditHours);
+            }
+        });
+    }
+
+    void bind(@NonNull ItemCourseBinding binding, @NonNull Course course) {
+        setText(binding.tvCourseName, names, course.getCourseName());
+        setText(binding.tvCourseCode, codes, course.getCourseCode());
+        setText(binding.tvCreditHours, creditHours, creditHoursText(course));
+    }
+
+    private static void precompute(@NonNull LruCache<String, PrecomputedTextCompat> cache,
+                                   @Nullable String text,
+                                   @NonNull PrecomputedTextCompat.Params textParams) {
+        if (text == null || text.isEmpty() || cache.get(text) != null) {
+            return;
+        }
+        cache.put(text, PrecomputedTextCompat.create(text, textParams));
+    }
+
+    private void setText(@NonNull TextView view,
+                         @NonNull LruCache<String, PrecomputedTextCompat> cache,
+                         @Nullable String text) {
+        PrecomputedTextCompat precomputed = text != null ? cache.get(text) : null;
+        if (precomputed != null) {
+            try {
+                TextViewCompat.setPrecomputedText(view, precomputed);
+                return;
+            } catch (IllegalArgumentException e) {
+                // The view's text style no longer matches the captured one; start over
+                Log.w(TAG, "setText: Precomputed text does not fit the row, dropping cached layouts", e);
+                params = null;
+                names.evictAll();
+                codes.evictAll();
+                creditHours.evictAll();
+            }
+        }
+        view.setText(text);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.coursemanagement.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Process;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Course row ViewHolders shared by every course list the activity shows. The pool outlives
+ * the list's view, so returning to the list reuses the rows it had instead of inflating
+ * them again; before the first rows are needed, the main thread's first idle moment starts
+ * inflating enough rows for one screen plus the view cache on a background thread.
+ * Owned by the activity, since the rows hold its context; call {@link #release()} when it
+ * is destroyed. Main thread only.
+ */
+public final class CourseViewPool {
+
+    private static final String TAG = "CourseViewPool";
+
+    // Rows kept attached-but-offscreen before falling back to the pool; a fling reveals
+    // about this many rows per frame on a phone-sized list
+    static final int ITEM_VIEW_CACHE_SIZE = 4;
+    // Spare rows above one screen, for the rows partly visible at both edges
+    private static final int EXTRA_ROWS = 2;
+    // Used until a row has been measured
+    private static final int DEFAULT_CAPACITY = 12;
+
+    private final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+    private final ExecutorService inflater = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private int capacity = DEFAULT_CAPACITY;
+    private boolean measured;
+    private int inFlight;
+    // Bumped on detach so rows inflated for a list that is gone are still pooled but do
+    // not start more work
+    private int generation;
+    @Nullable
+    private MessageQueue.IdleHandler pendingWarmUp;
+
+    public CourseViewPool() {
+        pool.setMaxRecycledViews(CourseAdapter.VIEW_TYPE_COURSE, capacity);
+    }
+
+    /**
+     * Connects {@code recyclerView} to the shared pool and schedules a warm-up for the next
+     * idle moment. {@code adapter} is a {@link CourseAdapter} or a {@link WindowedCourseAdapter}.
+     */
+    public void attach(@NonNull RecyclerView recyclerView,
+                       @NonNull RecyclerView.Adapter<CourseAdapter.CourseViewHolder> adapter) {
+        recyclerView.setRecycledViewPool(pool);
+        recyclerView.setItemViewCacheSize(ITEM_VIEW_CACHE_SIZE);
+        // The list is match_parent, so content changes never resize it
+        recyclerView.setHasFixedSize(true);
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            // Hand the visible rows to the pool when the fragment's view is destroyed
+            ((LinearLayoutManager) layoutManager).setRecycleChildrenOnDetach(true);
+        }
+        scheduleWarmUp(recyclerView, adapter);
+    }
+
+    /** Stops warming for the attached list; rows already in the pool stay there. */
+    public void detach() {
+        generation++;
+        if (pendingWarmUp != null) {
+            Looper.myQueue().removeIdleHandler(pendingWarmUp);
+            pendingWarmUp = null;
+        }
+    }
+
+    public void release() {
+        detach();
+        inflater.shutdownNow();
+        pool.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getPooledCount() {
+        return pool.getRecycledViewCount(CourseAdapter.VIEW_TYPE_COURSE);
+    }
+
+    private void scheduleWarmUp(@NonNull final RecyclerView recyclerView,
+                                @NonNull final RecyclerView.Adapter<CourseAdapter.CourseViewHolder> adapter) {
+        detach();
+        final int scheduledFor = generation;
+        pendingWarmUp = () -> {
+            pendingWarmUp = null;
+            if (scheduledFor == generation) {
+                warmUp(recyclerView, adapter, scheduledFor);
+            }
+            return false;
+        };
+        Looper.myQueue().addIdleHandler(pendingWarmUp);
+    }
+
+    private void warmUp(@NonNull RecyclerView recyclerView,
+                        @NonNull RecyclerView.Adapter<CourseAdapter.CourseViewHolder> adapter,
+                        int forGeneration) {
+        int missing = capacity - recyclerView.getChildCount() - getPooledCount() - inFlight;
+        // Until one row has been measured, inflate just that row to size the pool
+        int toInflate = measured ? missing : Math.min(missing, 1);
+        if (toInflate <= 0) {
+            return;
+        }
+        Log.d(TAG, "warmUp: Inflating " + toInflate + " rows in the background, capacity " + capacity);
+        for (int i = 0; i < toInflate; i++) {
+            inflateInBackground(recyclerView, adapter, forGeneration);
+        }
+    }
+
+    private void inflateInBackground(@NonNull final RecyclerView recyclerView,
+                                     @NonNull final RecyclerView.Adapter<CourseAdapter.CourseViewHolder> adapter,
+                                     final int forGeneration) {
+        inFlight++;
+        inflater.execute(() -> {
+            final long start = System.nanoTime();
+            final CourseAdapter.CourseViewHolder holder;
+            try {
+                // Through the adapter so the holder carries its view type; RecyclerView
+                // only reads the parent's context and layout params here
+                holder = adapter.createViewHolder(recyclerView, CourseAdapter.VIEW_TYPE_COURSE);
+            } catch (Exception e) {
+                Log.w(TAG, "inflateInBackground: Failed to inflate a course row", e);
+                mainHandler.post(() -> inFlight--);
+                return;
+            }
+            final long inflateNanos = System.nanoTime() - start;
+            mainHandler.post(() -> {
+                inFlight--;
+                if (inflater.isShutdown()) {
+                    return;
+                }
+                if (!measured) {
+                    measured = true;
+                    resize(recyclerView, holder.itemView);
+                    Log.d(TAG, "inflateInBackground: First row took " + inflateNanos / 1000 + " us, capacity now " + capacity);
+                }
+                pool.putRecycledView(holder);
+                if (forGeneration == generation) {
+                    warmUp(recyclerView, adapter, forGeneration);
+                }
+            });
+        });
+    }
+
+    private void resize(@NonNull RecyclerView recyclerView, @NonNull View row) {
+        int width = recyclerView.getWidth() > 0
+                ? recyclerView.getWidth()
+                : recyclerView.getResources().getDisplayMetrics().widthPixels;
+        int viewport = recyclerView.getHeight() > 0
+                ? recyclerView.getHeight()
+                : recyclerView.getResources().getDisplayMetrics().heightPixels;
+        int margins = 0;
+        ViewGroup.LayoutParams params = row.getLayoutParams();
+        if (params instanceof ViewGroup.MarginLayoutParams) {
+            ViewGroup.MarginLayoutParams marginParams = (ViewGroup.MarginLayoutParams) params;
+            width -= marginParams.leftMargin + marginParams.rightMargin;
+            margins = marginParams.topMargin + marginParams.bottomMargin;
+        }
+        row.measure(View.MeasureSpec.makeMeasureSpec(Math.max(width, 0), View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        int rowHeight = row.getMeasuredHeight() + margins;
+        if (rowHeight <= 0) {
+            return;
+        }
+        int rowsPerScreen = (viewport + rowHeight - 1) / rowHeight;
+        capacity = rowsPerScreen + EXTRA_ROWS + ITEM_VIEW_CACHE_SIZE;
+        pool.setMaxRecycledViews(CourseAdapter.VIEW_TYPE_COURSE, capacity);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.coursemanagement.adapter;
+
+import android.util.Log;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.repository.WindowedCourseSource;
+
+/**
+ * Course rows for a {@link WindowedCourseSource}. Positions outside the source's loaded
+ * window are bound as empty placeholder rows, and rebound when the window reaches them.
+ * Uses the same row and holder as {@link CourseAdapter}, so both share {@link CourseViewPool}.
+ */
+public class WindowedCourseAdapter extends RecyclerView.Adapter<CourseAdapter.CourseViewHolder> {
+
+    private static final String TAG = "WindowedCourseAdapter";
+
+    @NonNull
+    private final CourseAdapter.OnEditClickListener onEditClick;
+
+    @NonNull
+    private final CourseAdapter.OnDeleteClickListener onDeleteClick;
+
+    private final CourseRowText rowText = new CourseRowText();
+
+    @Nullable
+    private CourseAdapter.OnRowBoundListener onRowBound;
+
+    @Nullable
+    private WindowedCourseSource source;
+
+    public WindowedCourseAdapter(@NonNull CourseAdapter.OnEditClickListener onEditClick,
+                                 @NonNull CourseAdapter.OnDeleteClickListener onDeleteClick) {
+        this.onEditClick = onEditClick;
+        this.onDeleteClick = onDeleteClick;
+    }
+
+    public void setOnRowBoundListener(@Nullable CourseAdapter.OnRowBoundListener onRowBound) {
+        this.onRowBound = onRowBound;
+    }
+
+    public void setSource(@Nullable WindowedCourseSource source) {
+        this.source = source;
+        notifyDataSetChanged();
+    }
+
+    /** Forwarded from {@link WindowedCourseSource.Listener#onCountChanged}. */
+    public void onCountChanged() {
+        if (source != null) {
+            rowText.onListChanged(source.getWindow());
+        }
+        // Inserts and removes anywhere in the catalog shift every later position
+        notifyDataSetChanged();
+    }
+
+    /** Forwarded from {@link WindowedCourseSource.Listener#onRangeLoaded}. */
+    public void onRangeLoaded(int start, int count) {
+        if (source != null) {
+            rowText.onListChanged(source.getWindow(), Math.max(0, start - source.getWindowStart()));
+        }
+        notifyItemRangeChanged(start, count);
+    }
+
+    @Override
+    public int getItemCount() {
+        return source != null ? source.getCount() : 0;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return CourseAdapter.VIEW_TYPE_COURSE;
+    }
+
+    // May run on CourseViewPool's background thread
+    @NonNull
+    @Override
+    public CourseAdapter.CourseViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        try {
+            return CourseAdapter.inflateHolder(parent, rowText);
+        } catch (Exception e) {
+            Log.e(TAG, "onCreateViewHolder: Error creating ViewHolder", e);
+            throw new RuntimeException("Failed to create CourseViewHolder: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull CourseAdapter.CourseViewHolder holder, int position) {
+        try {
+            Course course = source != null ? source.get(position) : null;
+            if (course == null) {
+                holder.bindPlaceholder();
+                return;
+            }
+            rowText.captureParams(holder.binding);
+            rowText.precomputeAhead(source.getWindow(), position - source.getWindowStart() + 1);
+            holder.bind(course, rowText, onEditClick, onDeleteClick);
+            if (onRowBound != null) {
+                onRowBound.onRowBound(course);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "onBindViewHolder: Error binding ViewHolder at position " + position, e);
+        }
+    }
+}
@@ -1,30 +1,28 @@
 package com.example.coursemanagement.model;
 
-public class Course {
-
-    private String id;
-    private String courseName;
-    private String courseCode;
-    private int creditHours;
-    private String courseType; // "Lab" or "Theory"
-    private long timestamp;
-
-    // No-argument constructor required by Firebase
-    public Course() {
-        this("", "", "", 0, "", System.currentTimeMillis());
-    }
+public final class Course {
+
+    private final String id;
+    private final String courseName;
+    private final String courseCode;
+    private final int creditHours;
+    private final byte courseType; // CourseType code, stored as its label in Firebase
+    private final long timestamp;
+
+    // Cached hashCode, 0 means not computed yet
+    private int hash;
 
     public Course(String id,
                   String courseName,
                   String courseCode,
                   int creditHours,
-                  String courseType,
+                  CourseType courseType,
                   long timestamp) {
         this.id = id != null ? id : "";
         this.courseName = courseName != null ? courseName : "";
-        this.courseCode = courseCode != null ? courseCode : "";
+        this.courseCode = courseCode != null ? StringPool.intern(courseCode) : "";
         this.creditHours = creditHours;
-        this.courseType = courseType != null ? courseType : "";
+        this.courseType = (courseType != null ? courseType : CourseType.THEORY).getCode();
         this.timestamp = timestamp;
     }
 
@@ -32,48 +30,39 @@ public class Course {
         return id;
     }
 
-    public void setId(String id) {
-        this.id = id;
-    }
-
     public String getCourseName() {
         return courseName;
     }
 
-    public void setCourseName(String courseName) {
-        this.courseName = courseName;
-    }
-
     public String getCourseCode() {
         return courseCode;
     }
 
-    public void setCourseCode(String courseCode) {
-        this.courseCode = courseCode;
-    }
-
     public int getCreditHours() {
         return creditHours;
     }
 
-    public void setCreditHours(int creditHours) {
-        this.creditHours = creditHours;
-    }
-
+    // Label form of the type ("Lab" or "Theory"), as stored in Firebase
     public String getCourseType() {
-        return courseType;
+        return CourseType.fromCode(courseType).getLabel();
     }
 
-    public void setCourseType(String courseType) {
-        this.courseType = courseType;
+    public CourseType getType() {
+        return CourseType.fromCode(courseType);
     }
 
     public long getTimestamp() {
         return timestamp;
     }
 
-    public void setTimestamp(long timestamp) {
-        this.timestamp = timestamp;
+    // Courses are immutable; these return a copy with one field replaced
+
+    public Course withId(String id) {
+        return new Course(id, courseName, courseCode, creditHours, getType(), timestamp);
+    }
+
+    public Course withTimestamp(long timestamp) {
+        return new Course(id, courseName, courseCode, creditHours, getType(), timestamp);
     }
 
     @Override
@@ -83,24 +72,29 @@ public class Course {
 
         Course course = (Course) o;
 
+        // Only a shortcut when both hashes are already cached; computing them costs more than comparing
+        if (hash != 0 && course.hash != 0 && hash != course.hash) return false;
         if (creditHours != course.creditHours) return false;
+        if (courseType != course.courseType) return false;
         if (timestamp != course.timestamp) return false;
         if (id != null ? !id.equals(course.id) : course.id != null) return false;
-        if (courseName != null ? !courseName.equals(course.courseName) : course.courseName != null)
-            return false;
         if (courseCode != null ? !courseCode.equals(course.courseCode) : course.courseCode != null)
             return false;
-        return courseType != null ? courseType.equals(course.courseType) : course.courseType == null;
+        return courseName != null ? courseName.equals(course.courseName) : course.courseName == null;
     }
 
     @Override
     public int hashCode() {
-        int result = id != null ? id.hashCode() : 0;
-        result = 31 * result + (courseName != null ? courseName.hashCode() : 0);
-        result = 31 * result + (courseCode != null ? courseCode.hashCode() : 0);
-        result = 31 * result + creditHours;
-        result = 31 * result + (courseType != null ? courseType.hashCode() : 0);
-        result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+        int result = hash;
+        if (result == 0) {
+            result = id != null ? id.hashCode() : 0;
+            result = 31 * result + (courseName != null ? courseName.hashCode() : 0);
+            result = 31 * result + (courseCode != null ? courseCode.hashCode() : 0);
+            result = 31 * result + creditHours;
+            result = 31 * result + courseType;
+            result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+            hash = result;
+        }
         return result;
     }
 
@@ -111,7 +105,7 @@ public class Course {
                 ", courseName='" + courseName + '\'' +
                 ", courseCode='" + courseCode + '\'' +
                 ", creditHours=" + creditHours +
-                ", courseType='" + courseType + '\'' +
+                ", courseType='" + getCourseType() + '\'' +
                 ", timestamp=" + timestamp +
                 '}';
     }
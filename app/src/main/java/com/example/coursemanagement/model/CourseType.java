@@ -0,0 +1,48 @@
+package com.example.coursemanagement.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public enum CourseType {
+
+    THEORY((byte) 0, "Theory"),
+    LAB((byte) 1, "Lab");
+
+    private static final CourseType[] BY_CODE = values();
+
+    private final byte code;
+    private final String label;
+
+    CourseType(byte code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    // Value stored in Firebase under "courseType"
+    @NonNull
+    public String getLabel() {
+        return label;
+    }
+
+    @NonNull
+    public static CourseType fromCode(byte code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : THEORY;
+    }
+
+    // Null for unknown or missing labels; callers decide whether to skip or reject the course
+    @Nullable
+    public static CourseType fromLabel(@Nullable String label) {
+        if (label != null) {
+            for (CourseType type : BY_CODE) {
+                if (type.label.equalsIgnoreCase(label.trim())) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.coursemanagement.model;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, thread-safe string interner for values repeated across many courses
+ * (course codes and the like). Once {@link #MAX_SIZE} distinct values are pooled,
+ * new values pass through uninterned rather than evicting pooled ones, so memory
+ * stays bounded and an interned instance is never replaced under a reader.
+ */
+public final class StringPool {
+
+    static final int MAX_SIZE = 2048;
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>(MAX_SIZE * 4 / 3 + 1);
+
+    private StringPool() {
+    }
+
+    @Nullable
+    public static String intern(@Nullable String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        String cached = POOL.get(value);
+        if (cached != null) {
+            return cached;
+        }
+        // The size check races with other writers; the pool may overshoot by a few entries
+        if (POOL.size() >= MAX_SIZE) {
+            return value;
+        }
+        cached = POOL.putIfAbsent(value, value);
+        return cached != null ? cached : value;
+    }
+}
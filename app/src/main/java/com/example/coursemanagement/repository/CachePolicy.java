@@ -0,0 +1,106 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Which database subtrees stay mirrored on the device, how much disk the persistence
+ * cache may use, and whether the course summaries the list reads are prefetched once the
+ * app goes idle. The summaries are prefetched rather than kept synced, so the cache is
+ * warm for the next launch without downloading every later change to every course. The
+ * cache size must be applied to the database before its first use.
+ */
+public final class CachePolicy {
+
+    // Firebase accepts 1 MB to 100 MB; its own default is 10 MB
+    static final long MIN_CACHE_SIZE_BYTES = 1024L * 1024L;
+    static final long MAX_CACHE_SIZE_BYTES = 100L * 1024L * 1024L;
+
+    @NonNull
+    public static final CachePolicy DEFAULT = new Builder()
+            .keepSynced(CourseCodes.INDEX_PATH)
+            .cacheSizeBytes(20L * 1024L * 1024L)
+            .prefetchWhenIdle(true)
+            .build();
+
+    // Persistence can only be configured before the database is first used in the process
+    private static boolean databaseConfigured;
+
+    private final List<String> keepSyncedPaths;
+    private final long cacheSizeBytes;
+    private final boolean prefetchWhenIdle;
+
+    private CachePolicy(@NonNull Builder builder) {
+        this.keepSyncedPaths = Collections.unmodifiableList(new ArrayList<>(builder.keepSyncedPaths));
+        this.cacheSizeBytes = builder.cacheSizeBytes;
+        this.prefetchWhenIdle = builder.prefetchWhenIdle;
+    }
+
+    @NonNull
+    public List<String> getKeepSyncedPaths() {
+        return keepSyncedPaths;
+    }
+
+    public long getCacheSizeBytes() {
+        return cacheSizeBytes;
+    }
+
+    public boolean isPrefetchWhenIdle() {
+        return prefetchWhenIdle;
+    }
+
+    /**
+     * Enables disk persistence with this policy's cache size. Only the first call in a
+     * process has an effect, so the activity and background workers may both call it;
+     * it must come before anything else uses the database.
+     */
+    public void configure(@NonNull FirebaseDatabase database) {
+        synchronized (CachePolicy.class) {
+            if (databaseConfigured) {
+                return;
+            }
+            database.setPersistenceEnabled(true);
+            database.setPersistenceCacheSizeBytes(cacheSizeBytes);
+            databaseConfigured = true;
+        }
+    }
+
+    public static final class Builder {
+        private final List<String> keepSyncedPaths = new ArrayList<>();
+        private long cacheSizeBytes = 10L * 1024L * 1024L;
+        private boolean prefetchWhenIdle;
+
+        @NonNull
+        public Builder keepSynced(@NonNull String path) {
+            if (!keepSyncedPaths.contains(path)) {
+                keepSyncedPaths.add(path);
+            }
+            return this;
+        }
+
+        @NonNull
+        public Builder cacheSizeBytes(long cacheSizeBytes) {
+            if (cacheSizeBytes < MIN_CACHE_SIZE_BYTES || cacheSizeBytes > MAX_CACHE_SIZE_BYTES) {
+                throw new IllegalArgumentException("Cache size must be within 1 MB..100 MB: " + cacheSizeBytes);
+            }
+            this.cacheSizeBytes = cacheSizeBytes;
+            return this;
+        }
+
+        @NonNull
+        public Builder prefetchWhenIdle(boolean prefetchWhenIdle) {
+            this.prefetchWhenIdle = prefetchWhenIdle;
+            return this;
+        }
+
+        @NonNull
+        public CachePolicy build() {
+            return new CachePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.coursemanagement.repository;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies a {@link CachePolicy} to a repository: marks the policy's subtrees as kept in
+ * sync and, if enabled, reads the course summaries once the main thread first goes idle so
+ * the local cache is populated before the list is opened again. Runs once per process,
+ * however often the activity that starts it is recreated.
+ */
+public final class CacheWarmer {
+
+    private static final String TAG = "CacheWarmer";
+
+    private static final AtomicBoolean started = new AtomicBoolean();
+
+    private final CourseRepository repository;
+    private final CachePolicy policy;
+
+    public CacheWarmer(@NonNull CourseRepository repository, @NonNull CachePolicy policy) {
+        this.repository = repository;
+        this.policy = policy;
+    }
+
+    /** Call on the main thread after the first frame has been scheduled; only the first call in a process has an effect. */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        for (String path : policy.getKeepSyncedPaths()) {
+            repository.keepSynced(path, true);
+        }
+        if (policy.isPrefetchWhenIdle()) {
+            Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+                @Override
+                public boolean queueIdle() {
+                    prefetch();
+                    return false;
+                }
+            });
+        }
+        Log.d(TAG, "start: keepSynced " + policy.getKeepSyncedPaths() + ", idle prefetch " + policy.isPrefetchWhenIdle());
+    }
+
+    private void prefetch() {
+        final long start = System.nanoTime();
+        repository.prefetchCatalog(new CourseRepository.OperationCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer courses) {
+                Log.d(TAG, "prefetch: Warmed " + courses + " courses in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.w(TAG, "prefetch: Catalog prefetch failed", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps {@link CatalogSummary} totals up to date from child events in O(1) per event.
+ * For each course only its contribution (type and credit hours) is remembered, so a
+ * change or removal can be subtracted without looking at any other course.
+ */
+final class CatalogAggregator {
+
+    private final int[] counts = new int[CourseType.values().length];
+    private final long[] creditHours = new long[CourseType.values().length];
+    // id -> contribution packed as (credit hours << 8) | type code
+    private final Map<String, Long> contributions = new HashMap<>();
+
+    void onAdded(@NonNull Course course) {
+        // A re-added id replaces its earlier contribution
+        onRemoved(course.getId());
+        int type = course.getType().getCode();
+        counts[type]++;
+        creditHours[type] += course.getCreditHours();
+        contributions.put(course.getId(), ((long) course.getCreditHours() << 8) | type);
+    }
+
+    void onChanged(@NonNull Course course) {
+        onAdded(course);
+    }
+
+    void onRemoved(@NonNull String courseId) {
+        Long packed = contributions.remove(courseId);
+        if (packed == null) {
+            return;
+        }
+        int type = (int) (packed & 0xFF);
+        counts[type]--;
+        creditHours[type] -= packed >> 8;
+    }
+
+    @NonNull
+    CatalogSummary snapshot() {
+        return new CatalogSummary(counts.clone(), creditHours.clone());
+    }
+}
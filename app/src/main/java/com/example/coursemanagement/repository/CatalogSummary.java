@@ -0,0 +1,66 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.CourseType;
+
+import java.util.Arrays;
+
+/** Immutable course counts and credit-hour totals, overall and per {@link CourseType}. */
+public final class CatalogSummary {
+
+    static final CatalogSummary EMPTY = new CatalogSummary(new int[CourseType.values().length], new long[CourseType.values().length]);
+
+    private final int[] counts;
+    private final long[] creditHours;
+
+    CatalogSummary(@NonNull int[] counts, @NonNull long[] creditHours) {
+        this.counts = counts;
+        this.creditHours = creditHours;
+    }
+
+    public int getCourseCount(@NonNull CourseType type) {
+        return counts[type.getCode()];
+    }
+
+    public long getCreditHours(@NonNull CourseType type) {
+        return creditHours[type.getCode()];
+    }
+
+    public int getTotalCourses() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getTotalCreditHours() {
+        long total = 0;
+        for (long hours : creditHours) {
+            total += hours;
+        }
+        return total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CatalogSummary that = (CatalogSummary) o;
+        return Arrays.equals(counts, that.counts) && Arrays.equals(creditHours, that.creditHours);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(counts) + Arrays.hashCode(creditHours);
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogSummary{" +
+                "counts=" + Arrays.toString(counts) +
+                ", creditHours=" + Arrays.toString(creditHours) +
+                '}';
+    }
+}
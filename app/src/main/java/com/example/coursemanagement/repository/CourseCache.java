@@ -0,0 +1,109 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.coursemanagement.model.Course;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used courses by id, bounded both by entry count and by an estimate of
+ * retained bytes. Every put or invalidation bumps a modification stamp so a read that
+ * started before a change can avoid caching what it fetched.
+ */
+final class CourseCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 1000;
+    static final long DEFAULT_MAX_BYTES = 512L * 1024L;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Course> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long stamp;
+    private long evictions;
+
+    CourseCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive: " + maxEntries + " entries, " + maxBytes + " bytes");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    @Nullable
+    synchronized Course get(@NonNull String id) {
+        return entries.get(id);
+    }
+
+    synchronized long stamp() {
+        return stamp;
+    }
+
+    synchronized void put(@NonNull Course course) {
+        stamp++;
+        store(course);
+    }
+
+    /** Caches a course read since stamp, unless the cache was modified in the meantime. */
+    synchronized void putIfUnchangedSince(@NonNull Course course, long readStamp) {
+        if (stamp == readStamp) {
+            store(course);
+        }
+    }
+
+    synchronized void invalidate(@NonNull String id) {
+        stamp++;
+        Course removed = entries.remove(id);
+        if (removed != null) {
+            bytes -= estimateBytes(removed);
+        }
+    }
+
+    synchronized void clear() {
+        stamp++;
+        entries.clear();
+        bytes = 0;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getEstimatedBytes() {
+        return bytes;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void store(@NonNull Course course) {
+        Course previous = entries.put(course.getId(), course);
+        if (previous != null) {
+            bytes -= estimateBytes(previous);
+        }
+        bytes += estimateBytes(course);
+
+        Iterator<Map.Entry<String, Course>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            Course evicted = eldest.next().getValue();
+            eldest.remove();
+            bytes -= estimateBytes(evicted);
+            evictions++;
+        }
+    }
+
+    // Object headers and fields plus UTF-16 string contents; the code is usually interned but counted anyway
+    static long estimateBytes(@NonNull Course course) {
+        return 48 + stringBytes(course.getId()) + stringBytes(course.getCourseName()) + stringBytes(course.getCourseCode());
+    }
+
+    private static long stringBytes(@NonNull String value) {
+        return 40 + 2L * value.length();
+    }
+}
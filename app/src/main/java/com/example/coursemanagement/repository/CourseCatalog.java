@@ -0,0 +1,121 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.coursemanagement.model.Course;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One immutable emission of the course list. A new catalog is built against the
+ * previous one: any course equal to its previous version is replaced by the previous
+ * instance, and if nothing changed at all the previous list object itself is reused.
+ * Consumers can therefore compare courses (and whole lists) by reference first.
+ */
+final class CourseCatalog {
+
+    // Descending by key: push IDs start with their server-adjusted creation time, so this is
+    // creation order without trusting any device clock
+    static final Comparator<Course> NEWEST_FIRST = new Comparator<Course>() {
+        @Override
+        public int compare(Course o1, Course o2) {
+            return o2.getId().compareTo(o1.getId());
+        }
+    };
+
+    static final CourseCatalog EMPTY = new CourseCatalog(Collections.<Course>emptyList(), Collections.<String, Course>emptyMap());
+
+    @NonNull
+    private final List<Course> courses;
+    @NonNull
+    private final Map<String, Course> byId;
+
+    private CourseCatalog(@NonNull List<Course> courses, @NonNull Map<String, Course> byId) {
+        this.courses = courses;
+        this.byId = byId;
+    }
+
+    @NonNull
+    List<Course> getCourses() {
+        return courses;
+    }
+
+    @Nullable
+    Course get(@NonNull String id) {
+        return byId.get(id);
+    }
+
+    int size() {
+        return courses.size();
+    }
+
+    static final class Builder {
+
+        @NonNull
+        private final CourseCatalog previous;
+        private final List<Course> courses;
+        private final Map<String, Course> byId;
+        private int reused;
+        // Whether courses were added in ascending key order, as backends deliver them
+        private boolean ascending = true;
+
+        Builder(@NonNull CourseCatalog previous, int expectedSize) {
+            this.previous = previous;
+            this.courses = new ArrayList<>(expectedSize);
+            this.byId = new HashMap<>(expectedSize * 4 / 3 + 1);
+        }
+
+        /** Adds a freshly decoded course, swapping in the previous instance when unchanged. */
+        void add(@NonNull Course course) {
+            Course old = previous.byId.get(course.getId());
+            if (old != null && old.equals(course)) {
+                course = old;
+                reused++;
+            }
+            if (ascending && !courses.isEmpty()
+                    && courses.get(courses.size() - 1).getId().compareTo(course.getId()) >= 0) {
+                ascending = false;
+            }
+            courses.add(course);
+            byId.put(course.getId(), course);
+        }
+
+        /**
+         * Puts the courses newest first. Children added in the backend's key order only need
+         * reversing; anything else is sorted, and false is returned so callers can report it.
+         */
+        boolean orderNewestFirst() {
+            if (ascending) {
+                Collections.reverse(courses);
+                return true;
+            }
+            Collections.sort(courses, NEWEST_FIRST);
+            return false;
+        }
+
+        /** Returns the previous catalog when every course is the same instance in the same order. */
+        @NonNull
+        CourseCatalog build() {
+            if (reused == previous.size() && courses.size() == previous.size()) {
+                boolean identical = true;
+                List<Course> old = previous.courses;
+                for (int i = 0; i < courses.size(); i++) {
+                    if (courses.get(i) != old.get(i)) {
+                        identical = false;
+                        break;
+                    }
+                }
+                if (identical) {
+                    return previous;
+                }
+            }
+            return new CourseCatalog(Collections.unmodifiableList(courses), byId);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * Course-code uniqueness index: {@code courseCodes/{key} -> courseId}. Codes are compared
+ * trimmed and upper-cased, and characters Firebase forbids in keys are percent-encoded.
+ * Entries are written in the same update as their course, and a database rule (see the
+ * README) rejects an update that would take an entry held by another existing course.
+ */
+final class CourseCodes {
+
+    static final String INDEX_PATH = "courseCodes";
+
+    private CourseCodes() {
+    }
+
+    @NonNull
+    static String indexKey(@NonNull String courseCode) {
+        String normalized = courseCode.trim().toUpperCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == '.' || c == '#' || c == '$' || c == '[' || c == ']' || c == '/' || c == '%') {
+                key.append('%').append(String.format(Locale.ROOT, "%02X", (int) c));
+            } else {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    @NonNull
+    static String indexPath(@NonNull String courseCode) {
+        return INDEX_PATH + "/" + indexKey(courseCode);
+    }
+}
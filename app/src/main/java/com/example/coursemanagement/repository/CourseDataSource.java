@@ -0,0 +1,138 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * Backend behind {@link CourseRepository}. Paths are relative to the backend root
+ * (for example {@code "courses"} or {@code "courses/-Nabc"}) and values are raw
+ * database values: {@code Map<String, Object>} for objects, String, Long, Double,
+ * Boolean, or null for a missing node.
+ *
+ * Implementations deliver every callback on a single thread, in the order events
+ * happened, just as Firebase delivers on the main thread.
+ */
+public interface CourseDataSource {
+
+    /** See {@link CourseMapper#SERVER_TIMESTAMP}. */
+    Map<String, String> SERVER_TIMESTAMP = CourseMapper.SERVER_TIMESTAMP;
+
+    /**
+     * A write the database rules rejected: a {@code courseCodes} entry held by another
+     * course (see {@link CourseCodes}), or any other denial such as an expired sign-in.
+     * The exception does not say which; callers that care read the data to find out.
+     */
+    final class WriteRejectedException extends Exception {
+        public WriteRejectedException(@NonNull String message, @Nullable Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    interface Registration {
+        void remove();
+    }
+
+    interface ChildrenListener {
+        /** The full set of children under the observed path, in ascending key order. */
+        void onChildren(@NonNull Map<String, Object> children);
+
+        void onError(@NonNull Exception e);
+    }
+
+    /** Children are reported in ascending key order when the listener is added. */
+    interface ChildEventListener {
+        void onChildAdded(@NonNull String key, @Nullable Object value);
+
+        void onChildChanged(@NonNull String key, @Nullable Object value);
+
+        void onChildRemoved(@NonNull String key);
+
+        void onError(@NonNull Exception e);
+    }
+
+    /** Generates a new chronologically ordered child key under path without writing. */
+    @NonNull
+    String newKey(@NonNull String path);
+
+    @NonNull
+    Registration observeChildren(@NonNull String path, @NonNull ChildrenListener listener);
+
+    @NonNull
+    Registration observeChildEvents(@NonNull String path, @NonNull ChildEventListener listener);
+
+    /**
+     * Like {@link #observeChildEvents}, limited to children whose numeric {@code field} is at
+     * least {@code startAt}. A child whose field drops below it is reported as removed.
+     * Needs an index on {@code field} to be filtered by the backend.
+     */
+    @NonNull
+    Registration observeChildEventsSince(@NonNull String path, @NonNull String field, long startAt,
+                                         @NonNull ChildEventListener listener);
+
+    /** Reads a path once; the callback receives null when the node does not exist. */
+    void read(@NonNull String path, @NonNull CourseRepository.OperationCallback<Object> callback);
+
+    /**
+     * Reads up to limit children of path in key order, starting after startAfterKey (or
+     * from the first child when null). An empty map means there are no more children.
+     */
+    void readPage(@NonNull String path, @Nullable String startAfterKey, int limit,
+                  @NonNull CourseRepository.OperationCallback<Map<String, Object>> callback);
+
+    /**
+     * Reads the children of path whose numeric {@code field} is within [startAt, endAt],
+     * ordered by that field. Children without the field are left out. Needs an index on
+     * {@code field} to be filtered by the backend.
+     */
+    void readByChild(@NonNull String path, @NonNull String field, long startAt, long endAt,
+                     @NonNull CourseRepository.OperationCallback<Map<String, Object>> callback);
+
+    /**
+     * Writes several paths atomically. Each value replaces the node at its path and a
+     * null value deletes it. Fails with {@link WriteRejectedException} when the database
+     * rules reject any of the values, in which case nothing is written.
+     */
+    void update(@NonNull Map<String, Object> values, @NonNull CourseRepository.OperationCallback<Void> callback);
+
+    /**
+     * Atomically sets path to value if the node is absent or already holds value.
+     * The callback receives true when the path now holds value, false when another
+     * value was already there.
+     */
+    void claim(@NonNull String path, @NonNull String value, @NonNull CourseRepository.OperationCallback<Boolean> callback);
+
+    /**
+     * Atomically deletes path if it still holds value. The callback receives true when the
+     * node is now absent, false when another value was there and was left in place.
+     */
+    void release(@NonNull String path, @NonNull String value, @NonNull CourseRepository.OperationCallback<Boolean> callback);
+
+    /**
+     * Atomically sets path to value if the node is absent or its numeric field is below
+     * olderThan; a node whose field is missing counts as 0. The callback receives true
+     * when value was written, false when the node was left as it was.
+     */
+    void replaceIfOlder(@NonNull String path, @NonNull String field, long olderThan, @NonNull Map<String, Object> value,
+                        @NonNull CourseRepository.OperationCallback<Boolean> callback);
+
+    /**
+     * Whether the backend is connected to its server right now. A listener's first snapshot
+     * delivered while disconnected was served from the local cache. Backends without a
+     * remote copy always report true.
+     */
+    boolean isConnected();
+
+    /**
+     * The backend's clock now, in epoch milliseconds, as well as it can be estimated locally.
+     * Backends without a remote copy return the device clock.
+     */
+    long serverTimeMillis();
+
+    /**
+     * Keeps path mirrored locally while the app runs, so listeners attached later are
+     * served from the local cache. Backends without a remote copy may ignore it.
+     */
+    void keepSynced(@NonNull String path, boolean keepSynced);
+}
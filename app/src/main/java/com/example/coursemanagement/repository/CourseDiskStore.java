@@ -0,0 +1,235 @@
+package com.example.coursemanagement.repository;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * On-disk copy of the course summaries in list order, so a windowed list can read any
+ * range by position without holding the catalog in memory. It persists across launches
+ * and is kept current by {@link CourseSync}, which records alongside the rows the server
+ * time it has synced up to and the device time of its last successful sync. Blocking; call
+ * it from a background thread.
+ */
+final class CourseDiskStore extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "course_window.db";
+    private static final int DATABASE_VERSION = 4;
+
+    private static final String TABLE = "summaries";
+    private static final String COLUMN_ID = "id";
+    private static final String COLUMN_NAME = "name";
+    private static final String COLUMN_CODE = "code";
+    private static final String COLUMN_CREDIT_HOURS = "credit_hours";
+    private static final String COLUMN_TYPE = "type";
+    private static final String COLUMN_TIMESTAMP = "timestamp";
+
+    // One row per synced path: the server time the table is complete up to, and the device
+    // time of the last sync that succeeded
+    private static final String SYNC_TABLE = "sync_state";
+    private static final String COLUMN_PATH = "path";
+    private static final String COLUMN_SYNCED_AT = "synced_at";
+    private static final String COLUMN_CHECKED_AT = "checked_at";
+
+    // Same order as CourseCatalog.NEWEST_FIRST; served by the primary key index
+    private static final String LIST_ORDER = COLUMN_ID + " DESC";
+
+    private static CourseDiskStore instance;
+
+    private CourseDiskStore(@NonNull Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @NonNull
+    static synchronized CourseDiskStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new CourseDiskStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COLUMN_ID + " TEXT PRIMARY KEY, "
+                + COLUMN_NAME + " TEXT NOT NULL, "
+                + COLUMN_CODE + " TEXT NOT NULL, "
+                + COLUMN_CREDIT_HOURS + " INTEGER NOT NULL, "
+                + COLUMN_TYPE + " TEXT NOT NULL, "
+                + COLUMN_TIMESTAMP + " INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE " + SYNC_TABLE + " ("
+                + COLUMN_PATH + " TEXT PRIMARY KEY, "
+                + COLUMN_SYNCED_AT + " INTEGER NOT NULL, "
+                + COLUMN_CHECKED_AT + " INTEGER NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Only a copy; rebuild it, and the next sync refills it in full
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        db.execSQL("DROP TABLE IF EXISTS " + SYNC_TABLE);
+        onCreate(db);
+    }
+
+    /**
+     * Applies one batch of changes in a single transaction, moves the synced-up-to mark
+     * forward to {@code syncedAt} (it never moves back) and records {@code checkedAt}.
+     */
+    void apply(@NonNull Map<String, Course> upserts, @NonNull Collection<String> removals, long syncedAt, long checkedAt) {
+        applyChanges(upserts, removals, syncedAt, checkedAt);
+    }
+
+    /**
+     * Applies changes seen by a live listener. The last successful sync time is left alone:
+     * a listener also delivers local events while offline, so it proves nothing about how
+     * current the rows are.
+     */
+    void apply(@NonNull Map<String, Course> upserts, @NonNull Collection<String> removals, long syncedAt) {
+        applyChanges(upserts, removals, syncedAt, null);
+    }
+
+    private void applyChanges(@NonNull Map<String, Course> upserts, @NonNull Collection<String> removals, long syncedAt,
+                              @Nullable Long checkedAt) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            insert(db, upserts.values());
+            for (String courseId : removals) {
+                db.delete(TABLE, COLUMN_ID + " = ?", new String[]{courseId});
+            }
+            writeSyncState(db, Math.max(syncedAt, readLong(db, COLUMN_SYNCED_AT)),
+                    checkedAt != null ? checkedAt : readLong(db, COLUMN_CHECKED_AT));
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Replaces every row with {@code courses}, synced up to {@code syncedAt} and checked at
+     * {@code checkedAt}, in a single transaction.
+     */
+    void replaceAll(@NonNull Collection<Course> courses, long syncedAt, long checkedAt) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE, null, null);
+            insert(db, courses);
+            writeSyncState(db, syncedAt, checkedAt);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Server time the rows are complete up to, or 0 before the first full sync. */
+    long getSyncedAt() {
+        return readLong(getReadableDatabase(), COLUMN_SYNCED_AT);
+    }
+
+    /** Device time of the last successful sync, or 0 before the first. */
+    long getCheckedAt() {
+        return readLong(getReadableDatabase(), COLUMN_CHECKED_AT);
+    }
+
+    private static void insert(@NonNull SQLiteDatabase db, @NonNull Collection<Course> courses) {
+        ContentValues values = new ContentValues(6);
+        for (Course course : courses) {
+            values.clear();
+            values.put(COLUMN_ID, course.getId());
+            values.put(COLUMN_NAME, course.getCourseName());
+            values.put(COLUMN_CODE, course.getCourseCode());
+            values.put(COLUMN_CREDIT_HOURS, course.getCreditHours());
+            values.put(COLUMN_TYPE, course.getCourseType());
+            values.put(COLUMN_TIMESTAMP, course.getTimestamp());
+            db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        }
+    }
+
+    private static long readLong(@NonNull SQLiteDatabase db, @NonNull String column) {
+        try (Cursor cursor = db.rawQuery("SELECT " + column + " FROM " + SYNC_TABLE
+                + " WHERE " + COLUMN_PATH + " = ?", new String[]{CourseRepository.SUMMARIES_PATH})) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        }
+    }
+
+    private static void writeSyncState(@NonNull SQLiteDatabase db, long syncedAt, long checkedAt) {
+        ContentValues values = new ContentValues(3);
+        values.put(COLUMN_PATH, CourseRepository.SUMMARIES_PATH);
+        values.put(COLUMN_SYNCED_AT, syncedAt);
+        values.put(COLUMN_CHECKED_AT, checkedAt);
+        db.insertWithOnConflict(SYNC_TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    int count(@NonNull Set<String> hidden) {
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT COUNT(*) FROM " + TABLE + whereNotHidden(hidden), hidden.toArray(new String[0]))) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    /** Course counts and credit-hour totals per type, added up by SQLite rather than in memory. */
+    @NonNull
+    CatalogSummary summarize() {
+        int[] counts = new int[CourseType.values().length];
+        long[] creditHours = new long[CourseType.values().length];
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT " + COLUMN_TYPE + ", COUNT(*), SUM(" + COLUMN_CREDIT_HOURS + ") FROM " + TABLE
+                        + " GROUP BY " + COLUMN_TYPE, null)) {
+            while (cursor.moveToNext()) {
+                CourseType type = CourseType.fromLabel(cursor.getString(0));
+                if (type == null) {
+                    continue;
+                }
+                counts[type.getCode()] += cursor.getInt(1);
+                creditHours[type.getCode()] += cursor.getLong(2);
+            }
+        }
+        return new CatalogSummary(counts, creditHours);
+    }
+
+    /** Up to {@code limit} courses starting at list position {@code offset}, skipping hidden ones. */
+    @NonNull
+    List<Course> read(int offset, int limit, @NonNull Set<String> hidden) {
+        List<Course> courses = new ArrayList<>(limit);
+        String[] args = hidden.toArray(new String[hidden.size() + 2]);
+        args[hidden.size()] = Integer.toString(limit);
+        args[hidden.size() + 1] = Integer.toString(offset);
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT " + COLUMN_ID + ", " + COLUMN_NAME + ", " + COLUMN_CODE + ", " + COLUMN_CREDIT_HOURS + ", "
+                        + COLUMN_TYPE + ", " + COLUMN_TIMESTAMP + " FROM " + TABLE + whereNotHidden(hidden)
+                        + " ORDER BY " + LIST_ORDER + " LIMIT ? OFFSET ?", args)) {
+            while (cursor.moveToNext()) {
+                courses.add(new Course(cursor.getString(0), cursor.getString(1), cursor.getString(2),
+                        cursor.getInt(3), CourseType.fromLabel(cursor.getString(4)), cursor.getLong(5)));
+            }
+        }
+        return courses;
+    }
+
+    @NonNull
+    private static String whereNotHidden(@NonNull Set<String> hidden) {
+        if (hidden.isEmpty()) {
+            return "";
+        }
+        StringBuilder where = new StringBuilder(" WHERE " + COLUMN_ID + " NOT IN (");
+        for (int i = 0; i < hidden.size(); i++) {
+            where.append(i == 0 ? "?" : ", ?");
+        }
+        return where.append(')').toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts between {@link Course} and the raw values Firebase reads and writes.
+ *
+ * Decoding works on the plain {@code Map} returned by {@code DataSnapshot.getValue()},
+ * so each course is constructed exactly once from its stored fields: no reflective
+ * bean mapping, no throwaway defaults and no clock reads. Encoding produces the same
+ * map shape Firebase used to derive from the getters.
+ */
+final class CourseMapper {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_NAME = "courseName";
+    static final String FIELD_CODE = "courseCode";
+    static final String FIELD_CREDIT_HOURS = "creditHours";
+    static final String FIELD_TYPE = "courseType";
+    static final String FIELD_TIMESTAMP = "timestamp";
+    // Server time of the last write, on records, summaries and tombstones; see CourseSync
+    static final String FIELD_UPDATED_AT = "updatedAt";
+
+    /**
+     * Placeholder value the backend replaces with its own clock, in epoch milliseconds,
+     * when a write is applied. The same map as Firebase's {@code ServerValue.TIMESTAMP}.
+     */
+    static final Map<String, String> SERVER_TIMESTAMP = Collections.singletonMap(".sv", "timestamp");
+
+    private CourseMapper() {
+    }
+
+    /**
+     * Returns null when the value is missing, is not an object node, or has a course type
+     * this app does not know; callers skip and log such courses rather than guess a type.
+     */
+    @Nullable
+    static Course fromValue(@Nullable String key, @Nullable Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> fields = (Map<?, ?>) value;
+        CourseType type = CourseType.fromLabel(asString(fields.get(FIELD_TYPE)));
+        if (type == null) {
+            return null;
+        }
+        return new Course(
+                key != null ? key : "",
+                asString(fields.get(FIELD_NAME)),
+                asString(fields.get(FIELD_CODE)),
+                (int) asLong(fields.get(FIELD_CREDIT_HOURS)),
+                type,
+                asLong(fields.get(FIELD_TIMESTAMP))
+        );
+    }
+
+    @NonNull
+    static Map<String, Object> toValue(@NonNull Course course) {
+        Map<String, Object> value = new HashMap<>(8);
+        value.put(FIELD_ID, course.getId());
+        value.put(FIELD_NAME, course.getCourseName());
+        value.put(FIELD_CODE, course.getCourseCode());
+        value.put(FIELD_CREDIT_HOURS, course.getCreditHours());
+        value.put(FIELD_TYPE, course.getType().getLabel());
+        value.put(FIELD_TIMESTAMP, course.getTimestamp());
+        return value;
+    }
+
+    /**
+     * The fields the course list shows, stored under {@code courseSummaries}. Fields added
+     * to Course later belong only in {@link #toValue}, so list snapshots do not grow with
+     * the model.
+     */
+    @NonNull
+    static Map<String, Object> toSummaryValue(@NonNull Course course) {
+        Map<String, Object> value = new HashMap<>(8);
+        value.put(FIELD_NAME, course.getCourseName());
+        value.put(FIELD_CODE, course.getCourseCode());
+        value.put(FIELD_CREDIT_HOURS, course.getCreditHours());
+        value.put(FIELD_TYPE, course.getType().getLabel());
+        value.put(FIELD_TIMESTAMP, course.getTimestamp());
+        return value;
+    }
+
+    /** Server time of the last write to a record, summary or tombstone value; 0 when missing. */
+    static long updatedAt(@Nullable Object value) {
+        return value instanceof Map ? asLong(((Map<?, ?>) value).get(FIELD_UPDATED_AT)) : 0L;
+    }
+
+    /** Marks a deleted course for delta readers until {@link CourseSync} compaction removes it. */
+    @NonNull
+    static Map<String, Object> tombstoneValue() {
+        return Collections.<String, Object>singletonMap(FIELD_UPDATED_AT, SERVER_TIMESTAMP);
+    }
+
+    @Nullable
+    private static String asString(@Nullable Object value) {
+        return value instanceof String ? (String) value : null;
+    }
+
+    // Firebase hands back whole numbers as Long and fractional ones as Double
+    private static long asLong(@Nullable Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -1,119 +1,635 @@
 package com.example.coursemanagement.repository;
 
+import android.content.Context;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
 
 import com.example.coursemanagement.model.Course;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CourseRepository {
 
     private static final String TAG = "CourseRepository";
 
-    private final FirebaseDatabase database;
-    private final DatabaseReference coursesRef;
+    static final String COURSES_PATH = "courses";
+    // List projection of every course, see CourseMapper.toSummaryValue
+    static final String SUMMARIES_PATH = "courseSummaries";
+    // Deleted course ids with their delete time, kept for CourseSync.TOMBSTONE_TTL_MS
+    static final String TOMBSTONES_PATH = "courseTombstones";
+
+    private static CourseRepository instance;
+
+    private static final CourseDataSource.Registration NO_REGISTRATION = () -> { };
+
+    private final CourseDataSource dataSource;
+    private final RepositoryMetrics metrics = new RepositoryMetrics();
+    private final SubscriptionRegistry subscriptions = new SubscriptionRegistry();
+    private final WriteTraces writeTraces = new WriteTraces();
+    private final CourseCache courseCache = new CourseCache(CourseCache.DEFAULT_MAX_ENTRIES, CourseCache.DEFAULT_MAX_BYTES);
+    private final SingleFlight<Course> courseReads = new SingleFlight<>();
+    // Live subscriptions whose events keep courseCache current; with none the cache could go stale
+    private final AtomicInteger cacheFeeds = new AtomicInteger();
+    private final AtomicBoolean summaryMigrationChecked = new AtomicBoolean();
 
     public interface CoursesListener {
         void onCoursesUpdated(@NonNull List<Course> courses);
         void onError(@NonNull Exception e);
     }
 
+    public interface SummaryListener {
+        void onSummaryUpdated(@NonNull CatalogSummary summary);
+        void onError(@NonNull Exception e);
+    }
+
     public interface OperationCallback<T> {
         void onSuccess(T result);
         void onError(@NonNull Exception e);
     }
 
-    public CourseRepository() {
-        FirebaseDatabase db = FirebaseDatabase.getInstance();
-        this.database = db;
-        this.coursesRef = db.getReference("courses");
-        try {
-            Log.d(TAG, "CourseRepository initialized");
-            Log.d(TAG, "Firebase database instance: " + database.getApp().getName());
-            Log.d(TAG, "Courses reference path: " + coursesRef.getPath());
-        } catch (Exception e) {
-            Log.e(TAG, "Error initializing CourseRepository", e);
+    public CourseRepository(@NonNull CourseDataSource dataSource) {
+        this.dataSource = dataSource;
+        Log.d(TAG, "CourseRepository initialized with " + dataSource.getClass().getSimpleName());
+    }
+
+    /** Shared repository used by the fragments; Firebase-backed unless replaced via {@link #setInstance}. */
+    @NonNull
+    public static synchronized CourseRepository getInstance() {
+        if (instance == null) {
+            instance = new CourseRepository(new FirebaseCourseDataSource(FirebaseDatabase.getInstance()));
+        }
+        return instance;
+    }
+
+    /** Swaps the shared repository, e.g. for one backed by {@link InMemoryCourseDataSource} in tests. */
+    public static synchronized void setInstance(@NonNull CourseRepository repository) {
+        instance = repository;
+    }
+
+    @NonNull
+    public RepositoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @NonNull
+    public SubscriptionRegistry getSubscriptions() {
+        return subscriptions;
+    }
+
+    @NonNull
+    public WriteTraces getWriteTraces() {
+        return writeTraces;
+    }
+
+    @NonNull
+    private static String coursePath(@NonNull String courseId) {
+        return COURSES_PATH + "/" + courseId;
+    }
+
+    @NonNull
+    private static String summaryPath(@NonNull String courseId) {
+        return SUMMARIES_PATH + "/" + courseId;
+    }
+
+    @NonNull
+    static String tombstonePath(@NonNull String courseId) {
+        return TOMBSTONES_PATH + "/" + courseId;
+    }
+
+    /**
+     * Observes the course list until {@code owner} is destroyed. Must be called on the main
+     * thread; the returned handle may still be removed earlier.
+     */
+    @NonNull
+    public CourseDataSource.Registration observeAllCourses(@NonNull LifecycleOwner owner, @NonNull CoursesListener listener) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            Log.w(TAG, "observeAllCourses: Owner already destroyed, not subscribing");
+            return NO_REGISTRATION;
+        }
+        return register(RepositoryMetrics.ListenerKind.COURSES, owner, subscribeAllCourses(listener));
+    }
+
+    /**
+     * Observes the course list until the returned handle is passed to {@link #removeCoursesListener}.
+     * The list is built from {@code courseSummaries}; load full records with {@link #getCourseById}.
+     */
+    @NonNull
+    public CourseDataSource.Registration observeAllCourses(@NonNull CoursesListener listener) {
+        return register(RepositoryMetrics.ListenerKind.COURSES, null, subscribeAllCourses(listener));
+    }
+
+    @NonNull
+    private CourseDataSource.Registration register(@NonNull RepositoryMetrics.ListenerKind kind,
+                                                   @Nullable LifecycleOwner owner,
+                                                   @NonNull CourseDataSource.Registration registration) {
+        return subscriptions.register(kind, owner, metrics.track(kind, feedCourseCache(registration)));
+    }
+
+    // Counts the subscription as keeping courseCache current; the cache is dropped when the last one goes
+    @NonNull
+    private CourseDataSource.Registration feedCourseCache(@NonNull final CourseDataSource.Registration registration) {
+        cacheFeeds.incrementAndGet();
+        final AtomicBoolean removed = new AtomicBoolean();
+        return () -> {
+            registration.remove();
+            if (removed.compareAndSet(false, true) && cacheFeeds.decrementAndGet() == 0) {
+                courseCache.clear();
+            }
+        };
+    }
+
+    private boolean isCourseCacheLive() {
+        return cacheFeeds.get() > 0;
+    }
+
+    // List emissions carry summaries, not full records: evict courses that changed or were removed
+    private void refreshCourseCache(@NonNull CourseCatalog previous, @NonNull CourseCatalog updated) {
+        for (Course course : updated.getCourses()) {
+            if (previous.get(course.getId()) != course) {
+                courseCache.invalidate(course.getId());
+            }
+        }
+        if (previous.size() > 0) {
+            for (Course course : previous.getCourses()) {
+                if (updated.get(course.getId()) == null) {
+                    courseCache.invalidate(course.getId());
+                }
+            }
         }
     }
 
     @NonNull
-    public ValueEventListener observeAllCourses(@NonNull final CoursesListener listener) {
+    private CourseDataSource.Registration subscribeAllCourses(@NonNull final CoursesListener listener) {
         Log.d(TAG, "observeAllCourses: Starting to observe all courses");
 
-        ValueEventListener valueEventListener = new ValueEventListener() {
+        final long subscribedAt = System.nanoTime();
+        CourseDataSource.Registration registration = dataSource.observeChildren(SUMMARIES_PATH, new CourseDataSource.ChildrenListener() {
+            // Last emitted catalog; unchanged courses are carried over by reference
+            private CourseCatalog catalog = CourseCatalog.EMPTY;
+            private boolean rendered;
+
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
+            public void onChildren(@NonNull Map<String, Object> children) {
                 try {
-                    Log.d(TAG, "observeAllCourses: onDataChange called with " + snapshot.getChildrenCount() + " children");
-                    List<Course> courses = new ArrayList<>();
+                    Log.d(TAG, "observeAllCourses: onChildren called with " + children.size() + " children");
+                    CourseCatalog updated = decodeCatalog(catalog, children);
+                    catalog = updated;
+                    writeTraces.onCatalog(updated);
+
+                    Log.d(TAG, "observeAllCourses: Sending " + updated.size() + " courses to UI");
+                    listener.onCoursesUpdated(updated.getCourses());
+                    if (!rendered) {
+                        rendered = true;
+                        metrics.recordFirstRender(System.nanoTime() - subscribedAt, !dataSource.isConnected());
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "observeAllCourses: Error in onChildren", e);
+                    listener.onError(e);
+                }
+            }
 
-                    for (DataSnapshot courseSnapshot : snapshot.getChildren()) {
-                        try {
-                            Course course = courseSnapshot.getValue(Course.class);
-                            if (course != null) {
-                                String key = courseSnapshot.getKey();
-                                course.setId(key != null ? key : "");
-                                courses.add(course);
-                                Log.d(TAG, "observeAllCourses: Added course: " + course.getCourseName() + " (ID: " + course.getId() + ")");
-                            } else {
-                                Log.w(TAG, "observeAllCourses: Failed to parse course from snapshot: " + courseSnapshot.getKey());
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "observeAllCourses: Database listener cancelled", e);
+                listener.onError(e);
+            }
+        });
+        Log.d(TAG, "observeAllCourses: Children listener added");
+
+        return registration;
+    }
+
+    /** Fills course summaries and the code index from the full records; see {@link SummaryMigration}. */
+    public void migrateSummaries(@NonNull SummaryMigration.Listener listener) {
+        new SummaryMigration(dataSource, SummaryMigration.DEFAULT_BATCH_SIZE).run(listener);
+    }
+
+    /**
+     * Backfills summaries and the code index from the full records unless this
+     * database has been migrated before. Only the first call in a process checks; a failed
+     * run is retried on the next call.
+     */
+    public void migrateSummariesIfNeeded() {
+        if (!summaryMigrationChecked.compareAndSet(false, true)) {
+            return;
+        }
+        new SummaryMigration(dataSource, SummaryMigration.DEFAULT_BATCH_SIZE).runIfNeeded(new SummaryMigration.Listener() {
+            @Override
+            public void onProgress(int copied) {
+            }
+
+            @Override
+            public void onComplete(int copied, int skipped) {
+                Log.d(TAG, "migrateSummariesIfNeeded: Copied " + copied + ", skipped " + skipped);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "migrateSummariesIfNeeded: Migration failed", e);
+                summaryMigrationChecked.set(false);
+            }
+        });
+    }
+
+    /**
+     * Raw course summary snapshots, tracked like any other course subscription. Used by the
+     * Flow API, which decodes them with {@link #decodeCatalog} off the main thread. The first
+     * snapshot handed over is recorded as the first render, as on the listener path.
+     */
+    @NonNull
+    CourseDataSource.Registration observeSummaryChildren(@NonNull final CourseDataSource.ChildrenListener listener) {
+        final long subscribedAt = System.nanoTime();
+        CourseDataSource.Registration registration = dataSource.observeChildren(SUMMARIES_PATH, new CourseDataSource.ChildrenListener() {
+            private boolean rendered;
+
+            @Override
+            public void onChildren(@NonNull Map<String, Object> children) {
+                listener.onChildren(children);
+                if (!rendered) {
+                    rendered = true;
+                    metrics.recordFirstRender(System.nanoTime() - subscribedAt, !dataSource.isConnected());
+                }
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                listener.onError(e);
+            }
+        });
+        return register(RepositoryMetrics.ListenerKind.COURSES, null, registration);
+    }
+
+    /**
+     * Raw child events for course summaries written at or after server time {@code since},
+     * until {@code owner} is destroyed. Used by {@link WindowedCourseSource}, which never
+     * holds a full snapshot of the list and catches up on older changes with {@link CourseSync}.
+     * Each event evicts its course from the course cache, since no catalog summary listener
+     * runs alongside a windowed list to do so.
+     */
+    @NonNull
+    CourseDataSource.Registration observeSummaryChildEventsSince(@NonNull LifecycleOwner owner, long since,
+                                                                 @NonNull final CourseDataSource.ChildEventListener listener) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            Log.w(TAG, "observeSummaryChildEventsSince: Owner already destroyed, not subscribing");
+            return NO_REGISTRATION;
+        }
+        return register(RepositoryMetrics.ListenerKind.COURSES, owner,
+                dataSource.observeChildEventsSince(SUMMARIES_PATH, CourseMapper.FIELD_UPDATED_AT, since,
+                        new CourseDataSource.ChildEventListener() {
+                            @Override
+                            public void onChildAdded(@NonNull String key, Object value) {
+                                courseCache.invalidate(key);
+                                listener.onChildAdded(key, value);
                             }
-                        } catch (Exception e) {
-                            Log.e(TAG, "observeAllCourses: Error parsing individual course snapshot: " + courseSnapshot.getKey(), e);
-                        }
-                    }
 
-                    Collections.sort(courses, new Comparator<Course>() {
-                        @Override
-                        public int compare(Course o1, Course o2) {
-                            long t1 = o1.getTimestamp();
-                            long t2 = o2.getTimestamp();
-                            // Descending by timestamp
-                            return Long.compare(t2, t1);
-                        }
-                    });
+                            @Override
+                            public void onChildChanged(@NonNull String key, Object value) {
+                                courseCache.invalidate(key);
+                                listener.onChildChanged(key, value);
+                            }
 
-                    Log.d(TAG, "observeAllCourses: Sending " + courses.size() + " courses to UI");
-                    listener.onCoursesUpdated(courses);
-                } catch (Exception e) {
-                    Log.e(TAG, "observeAllCourses: Error in onDataChange", e);
-                    listener.onError(e);
+                            @Override
+                            public void onChildRemoved(@NonNull String key) {
+                                courseCache.invalidate(key);
+                                listener.onChildRemoved(key);
+                            }
+
+                            @Override
+                            public void onError(@NonNull Exception e) {
+                                listener.onError(e);
+                            }
+                        }));
+    }
+
+    /**
+     * Brings the on-device course store up to date with the summaries and deletes stamped
+     * since its last sync; the callback receives the number of rows changed, on a
+     * background thread. See {@link CourseSync}.
+     */
+    public void syncCourseStore(@NonNull Context context, @NonNull OperationCallback<Integer> callback) {
+        new CourseSync(dataSource, CourseDiskStore.getInstance(context))
+                .run(metrics.timed(RepositoryMetrics.Operation.SYNC, callback));
+    }
+
+    /** Purges delete tombstones older than {@link CourseSync#TOMBSTONE_TTL_MS}; the callback receives how many. */
+    public void compactTombstones(@NonNull OperationCallback<Integer> callback) {
+        CourseSync.compact(dataSource, metrics.timed(RepositoryMetrics.Operation.COMPACT, callback));
+    }
+
+    /**
+     * Decodes one snapshot of course children into a catalog ordered newest first, reusing
+     * unchanged instances from previous, and records decode and ordering metrics. Children
+     * arrive in the server's key order, so ordering is a reversal rather than a sort.
+     */
+    @NonNull
+    CourseCatalog decodeCatalog(@NonNull CourseCatalog previous, @NonNull Map<String, Object> children) {
+        long decodeStart = System.nanoTime();
+        long estimatedBytes = 0;
+        int skipped = 0;
+        CourseCatalog.Builder builder = new CourseCatalog.Builder(previous, children.size());
+
+        for (Map.Entry<String, Object> child : children.entrySet()) {
+            estimatedBytes += child.getKey().length() + RepositoryMetrics.estimateBytes(child.getValue());
+            try {
+                Course course = CourseMapper.fromValue(child.getKey(), child.getValue());
+                if (course != null) {
+                    builder.add(course);
+                    Log.d(TAG, "decodeCatalog: Added course: " + course.getCourseName() + " (ID: " + course.getId() + ")");
+                } else {
+                    skipped++;
+                    Log.w(TAG, "decodeCatalog: Skipping course that is not an object or has an unknown type: " + child.getKey());
                 }
+            } catch (Exception e) {
+                skipped++;
+                Log.e(TAG, "decodeCatalog: Error parsing individual course snapshot: " + child.getKey(), e);
             }
+        }
+
+        long sortStart = System.nanoTime();
+        if (!builder.orderNewestFirst()) {
+            Log.w(TAG, "decodeCatalog: Children were not in key order, sorted " + children.size() + " courses");
+        }
+        metrics.recordDecode(sortStart - decodeStart);
+        metrics.recordSort(System.nanoTime() - sortStart);
+        metrics.recordSnapshot(children.size(), estimatedBytes, skipped);
+
+        CourseCatalog updated = builder.build();
+        if (updated == previous) {
+            Log.d(TAG, "decodeCatalog: Catalog unchanged, re-sending previous list");
+        } else {
+            refreshCourseCache(previous, updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Observes course counts and credit-hour totals per course type. Totals are maintained
+     * incrementally from child events, so each added, changed or removed course costs O(1)
+     * and the catalog is never rescanned.
+     */
+    @NonNull
+    public CourseDataSource.Registration observeCatalogSummary(@NonNull LifecycleOwner owner, @NonNull SummaryListener listener) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            Log.w(TAG, "observeCatalogSummary: Owner already destroyed, not subscribing");
+            return NO_REGISTRATION;
+        }
+        return register(RepositoryMetrics.ListenerKind.SUMMARY, owner, subscribeCatalogSummary(listener));
+    }
+
+    @NonNull
+    public CourseDataSource.Registration observeCatalogSummary(@NonNull SummaryListener listener) {
+        return register(RepositoryMetrics.ListenerKind.SUMMARY, null, subscribeCatalogSummary(listener));
+    }
+
+    @NonNull
+    private CourseDataSource.Registration subscribeCatalogSummary(@NonNull final SummaryListener listener) {
+        Log.d(TAG, "observeCatalogSummary: Starting to observe catalog summary");
+
+        return dataSource.observeChildEvents(SUMMARIES_PATH, new CourseDataSource.ChildEventListener() {
+            private final CatalogAggregator aggregator = new CatalogAggregator();
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e(TAG, "observeAllCourses: Database listener cancelled", error.toException());
-                listener.onError(error.toException());
+            public void onChildAdded(@NonNull String key, Object value) {
+                Course course = CourseMapper.fromValue(key, value);
+                if (course != null) {
+                    aggregator.onAdded(course);
+                    courseCache.invalidate(key);
+                    listener.onSummaryUpdated(aggregator.snapshot());
+                }
             }
-        };
 
-        coursesRef.addValueEventListener(valueEventListener);
-        Log.d(TAG, "observeAllCourses: Value event listener added");
+            @Override
+            public void onChildChanged(@NonNull String key, Object value) {
+                Course course = CourseMapper.fromValue(key, value);
+                if (course != null) {
+                    aggregator.onChanged(course);
+                    courseCache.invalidate(key);
+                } else {
+                    aggregator.onRemoved(key);
+                    courseCache.invalidate(key);
+                }
+                listener.onSummaryUpdated(aggregator.snapshot());
+            }
 
-        return valueEventListener;
+            @Override
+            public void onChildRemoved(@NonNull String key) {
+                aggregator.onRemoved(key);
+                courseCache.invalidate(key);
+                listener.onSummaryUpdated(aggregator.snapshot());
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "observeCatalogSummary: Database listener cancelled", e);
+                listener.onError(e);
+            }
+        });
     }
 
-    public void removeCoursesListener(@NonNull ValueEventListener listener) {
+    void keepSynced(@NonNull String path, boolean keepSynced) {
         try {
-            Log.d(TAG, "removeCoursesListener: Removing value event listener");
-            coursesRef.removeEventListener(listener);
+            dataSource.keepSynced(path, keepSynced);
+        } catch (Exception e) {
+            Log.e(TAG, "keepSynced: Failed for " + path, e);
+        }
+    }
+
+    /** Reads all course summaries once so they land in the local cache; reports the course count. */
+    void prefetchCatalog(@NonNull final OperationCallback<Integer> callback) {
+        dataSource.read(SUMMARIES_PATH, new OperationCallback<Object>() {
+            @Override
+            public void onSuccess(Object value) {
+                callback.onSuccess(value instanceof Map ? ((Map<?, ?>) value).size() : 0);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    public void removeCoursesListener(@NonNull CourseDataSource.Registration registration) {
+        try {
+            Log.d(TAG, "removeCoursesListener: Removing courses listener");
+            registration.remove();
         } catch (Exception e) {
             Log.e(TAG, "removeCoursesListener: Error removing listener", e);
         }
     }
 
-    public void addCourse(@NonNull final Course course, @NonNull final OperationCallback<String> callback) {
+    /**
+     * Checks the server's code index for an existing course other than exceptCourseId that
+     * holds courseCode: one read of the entry and, when there is one, one of the course it
+     * names. A false result is not a guarantee; writes still claim the code on the server.
+     */
+    public void isCourseCodeTaken(@NonNull String courseCode, @Nullable final String exceptCourseId,
+                                  @NonNull final OperationCallback<Boolean> callback) {
+        findCodeOwner(CourseCodes.indexPath(courseCode), new OperationCallback<String>() {
+            @Override
+            public void onSuccess(String owner) {
+                callback.onSuccess(owner != null && !owner.equals(exceptCourseId));
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * The course named by the index entry at codePath, or null when the entry is absent or
+     * names a course that no longer exists, which the database rules let a new course take.
+     */
+    private void findCodeOwner(@NonNull final String codePath, @NonNull final OperationCallback<String> callback) {
+        dataSource.read(codePath, new OperationCallback<Object>() {
+            @Override
+            public void onSuccess(Object owner) {
+                if (!(owner instanceof String)) {
+                    callback.onSuccess(null);
+                    return;
+                }
+                final String ownerId = (String) owner;
+                dataSource.read(coursePath(ownerId), new OperationCallback<Object>() {
+                    @Override
+                    public void onSuccess(Object record) {
+                        callback.onSuccess(record != null ? ownerId : null);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        Log.e(TAG, "findCodeOwner: Failed to read course " + ownerId, e);
+                        callback.onError(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "findCodeOwner: Failed to read " + codePath, e);
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Writes a course together with its list summary and its course-code index entry, as
+     * one multi-path update. The database rules reject the whole update if another existing
+     * course holds the code, so the record and its claim are never written apart. A previous
+     * code is released afterwards, and only if it still names this course. A course without
+     * a previous version is new, and its timestamp is set by the server. Every write stamps
+     * {@code updatedAt} with server time for delta readers; see {@link CourseSync}.
+     */
+    private void writeCourse(@NonNull final Course course, @Nullable final Course previous, @NonNull final OperationCallback<Void> callback) {
+        final String codePath = CourseCodes.indexPath(course.getCourseCode());
+        final boolean codeChanged = previous != null
+                && !codePath.equals(CourseCodes.indexPath(previous.getCourseCode()));
+        final Map<String, Object> values = new HashMap<>();
+        Map<String, Object> record = CourseMapper.toValue(course);
+        Map<String, Object> summary = CourseMapper.toSummaryValue(course);
+        if (previous == null) {
+            record.put(CourseMapper.FIELD_TIMESTAMP, CourseDataSource.SERVER_TIMESTAMP);
+            summary.put(CourseMapper.FIELD_TIMESTAMP, CourseDataSource.SERVER_TIMESTAMP);
+        }
+        record.put(CourseMapper.FIELD_UPDATED_AT, CourseDataSource.SERVER_TIMESTAMP);
+        summary.put(CourseMapper.FIELD_UPDATED_AT, CourseDataSource.SERVER_TIMESTAMP);
+        values.put(coursePath(course.getId()), record);
+        values.put(summaryPath(course.getId()), summary);
+        values.put(codePath, course.getId());
+
+        dataSource.update(values, new OperationCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                if (isCourseCacheLive()) {
+                    courseCache.put(course);
+                }
+                if (codeChanged) {
+                    releaseCode(previous.getCourseCode(), course.getId());
+                }
+                callback.onSuccess(null);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (e instanceof CourseDataSource.WriteRejectedException) {
+                    explainRejection(course, codePath, e, callback);
+                    return;
+                }
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * A rejected write is reported as a duplicate code only when the code index shows why:
+     * the entry names another course that still exists. Any other rejection, such as an
+     * expired sign-in or another rule, is passed on as it came.
+     */
+    private void explainRejection(@NonNull final Course course, @NonNull String codePath, @NonNull final Exception rejection,
+                                  @NonNull final OperationCallback<Void> callback) {
+        findCodeOwner(codePath, new OperationCallback<String>() {
+            @Override
+            public void onSuccess(String owner) {
+                if (owner == null || owner.equals(course.getId())) {
+                    callback.onError(rejection);
+                    return;
+                }
+                Log.w(TAG, "writeCourse: Course code already claimed by " + owner + ": " + course.getCourseCode(), rejection);
+                callback.onError(new Exception("Course code already exists: " + course.getCourseCode(), rejection));
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                callback.onError(rejection);
+            }
+        });
+    }
+
+    /**
+     * Removes the index entry for courseCode if it still names courseId. Entries of courses
+     * stored before the index existed, or claimed by another course since, are left alone.
+     * If the app dies before this runs, the database rules let the next course take over
+     * an entry whose course is gone.
+     */
+    private void releaseCode(@NonNull String courseCode, @NonNull final String courseId) {
+        final String codePath = CourseCodes.indexPath(courseCode);
+        dataSource.release(codePath, courseId, new OperationCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean released) {
+                Log.d(TAG, "releaseCode: " + codePath + (Boolean.TRUE.equals(released) ? " released" : " held by another course"));
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "releaseCode: Failed to release " + codePath, e);
+            }
+        });
+    }
+
+    public void addCourse(@NonNull Course course, @NonNull OperationCallback<String> callback) {
+        addCourse(course, writeTraces.begin(RepositoryMetrics.Operation.ADD), callback);
+    }
+
+    /** As {@link #addCourse(Course, OperationCallback)}, continuing a trace begun when the user submitted. */
+    public void addCourse(@NonNull Course course, @NonNull WriteTrace trace, @NonNull OperationCallback<String> callback) {
+        doAddCourse(course, trace, metrics.timed(RepositoryMetrics.Operation.ADD, writeTraces.traced(trace, callback)));
+    }
+
+    private void doAddCourse(@NonNull final Course course, @NonNull final WriteTrace trace,
+                             @NonNull final OperationCallback<String> callback) {
         try {
             Log.d(TAG, "addCourse: Starting to add course: " + course.getCourseName());
 
@@ -135,44 +651,53 @@ public class CourseRepository {
                 return;
             }
 
-            String key;
+            final String key;
             try {
-                key = coursesRef.push().getKey();
+                key = dataSource.newKey(COURSES_PATH);
             } catch (Exception e) {
-                Log.e(TAG, "addCourse: Error generating Firebase key", e);
+                Log.e(TAG, "addCourse: Error generating course key", e);
                 callback.onError(new Exception("Failed to generate course ID: " + e.getMessage(), e));
                 return;
             }
 
-            if (key == null) {
-                Log.e(TAG, "addCourse: Generated key is null");
-                callback.onError(new Exception("Failed to generate course ID - key is null"));
-                return;
-            }
-
             Log.d(TAG, "addCourse: Generated key: " + key);
+            trace.mark(WriteTrace.Stage.VALIDATED);
 
-            course.setId(key);
-            course.setTimestamp(System.currentTimeMillis());
-
-            Log.d(TAG, "addCourse: Setting course data in Firebase");
-            coursesRef.child(key)
-                    .setValue(course)
-                    .addOnSuccessListener(aVoid -> {
-                        Log.i(TAG, "addCourse: Course added successfully with ID: " + key);
-                        callback.onSuccess(key);
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "addCourse: Failed to add course: " + course.getCourseName(), e);
-                        callback.onError(new Exception("Failed to add course: " + e.getMessage(), e));
-                    });
+            // The stored timestamp comes from the server clock; this estimate only feeds the local caches
+            final Course newCourse = course.withId(key).withTimestamp(System.currentTimeMillis());
+            writeTraces.sent(trace, key, newCourse);
+
+            Log.d(TAG, "addCourse: Writing course data");
+            writeCourse(newCourse, null, new OperationCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    Log.i(TAG, "addCourse: Course added successfully with ID: " + key);
+                    callback.onSuccess(key);
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    Log.e(TAG, "addCourse: Failed to add course: " + course.getCourseName(), e);
+                    callback.onError(new Exception("Failed to add course: " + e.getMessage(), e));
+                }
+            });
         } catch (Exception e) {
             Log.e(TAG, "addCourse: Failed to add course: " + course.getCourseName(), e);
             callback.onError(new Exception("Failed to add course: " + e.getMessage(), e));
         }
     }
 
-    public void updateCourse(@NonNull final Course course, @NonNull final OperationCallback<Void> callback) {
+    public void updateCourse(@NonNull Course course, @NonNull OperationCallback<Void> callback) {
+        updateCourse(course, writeTraces.begin(RepositoryMetrics.Operation.UPDATE), callback);
+    }
+
+    /** As {@link #updateCourse(Course, OperationCallback)}, continuing a trace begun when the user submitted. */
+    public void updateCourse(@NonNull Course course, @NonNull WriteTrace trace, @NonNull OperationCallback<Void> callback) {
+        doUpdateCourse(course, trace, metrics.timed(RepositoryMetrics.Operation.UPDATE, writeTraces.traced(trace, callback)));
+    }
+
+    private void doUpdateCourse(@NonNull final Course course, @NonNull final WriteTrace trace,
+                                @NonNull final OperationCallback<Void> callback) {
         try {
             Log.d(TAG, "updateCourse: Starting to update course: " + course.getCourseName() + " (ID: " + course.getId() + ")");
 
@@ -200,31 +725,42 @@ public class CourseRepository {
                 return;
             }
 
-            coursesRef.child(course.getId()).addListenerForSingleValueEvent(new ValueEventListener() {
+            trace.mark(WriteTrace.Stage.VALIDATED);
+
+            dataSource.read(coursePath(course.getId()), new OperationCallback<Object>() {
                 @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (!snapshot.exists()) {
+                public void onSuccess(Object existing) {
+                    trace.mark(WriteTrace.Stage.READ);
+                    if (existing == null) {
                         Log.w(TAG, "updateCourse: Course with ID " + course.getId() + " does not exist");
                         callback.onError(new Exception("Course not found with ID: " + course.getId()));
                         return;
                     }
 
-                    Log.d(TAG, "updateCourse: Updating course data in Firebase");
-                    coursesRef.child(course.getId()).setValue(course)
-                            .addOnSuccessListener(aVoid -> {
-                                Log.i(TAG, "updateCourse: Course updated successfully: " + course.getCourseName());
-                                callback.onSuccess(null);
-                            })
-                            .addOnFailureListener(e -> {
-                                Log.e(TAG, "updateCourse: Failed to update course: " + course.getCourseName(), e);
-                                callback.onError(new Exception("Failed to update course: " + e.getMessage(), e));
-                            });
+                    Log.d(TAG, "updateCourse: Writing updated course data");
+                    Course previous = CourseMapper.fromValue(course.getId(), existing);
+                    // The creation time is the server's and never rewritten from the device
+                    Course updated = previous != null ? course.withTimestamp(previous.getTimestamp()) : course;
+                    writeTraces.sent(trace, course.getId(), updated);
+                    writeCourse(updated, previous, new OperationCallback<Void>() {
+                        @Override
+                        public void onSuccess(Void result) {
+                            Log.i(TAG, "updateCourse: Course updated successfully: " + course.getCourseName());
+                            callback.onSuccess(null);
+                        }
+
+                        @Override
+                        public void onError(@NonNull Exception e) {
+                            Log.e(TAG, "updateCourse: Failed to update course: " + course.getCourseName(), e);
+                            callback.onError(new Exception("Failed to update course: " + e.getMessage(), e));
+                        }
+                    });
                 }
 
                 @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    Log.e(TAG, "updateCourse: Error checking if course exists", error.toException());
-                    callback.onError(new Exception("Error verifying course existence: " + error.getMessage(), error.toException()));
+                public void onError(@NonNull Exception e) {
+                    Log.e(TAG, "updateCourse: Error checking if course exists", e);
+                    callback.onError(new Exception("Error verifying course existence: " + e.getMessage(), e));
                 }
             });
         } catch (Exception e) {
@@ -233,7 +769,13 @@ public class CourseRepository {
         }
     }
 
-    public void deleteCourse(@NonNull final String courseId, @NonNull final OperationCallback<Void> callback) {
+    public void deleteCourse(@NonNull String courseId, @NonNull OperationCallback<Void> callback) {
+        WriteTrace trace = writeTraces.begin(RepositoryMetrics.Operation.DELETE);
+        doDeleteCourse(courseId, trace, metrics.timed(RepositoryMetrics.Operation.DELETE, writeTraces.traced(trace, callback)));
+    }
+
+    private void doDeleteCourse(@NonNull final String courseId, @NonNull final WriteTrace trace,
+                                @NonNull final OperationCallback<Void> callback) {
         try {
             Log.d(TAG, "deleteCourse: Starting to delete course with ID: " + courseId);
 
@@ -242,35 +784,52 @@ public class CourseRepository {
                 callback.onError(new Exception("Course ID cannot be empty"));
                 return;
             }
+            trace.mark(WriteTrace.Stage.VALIDATED);
 
-            coursesRef.child(courseId).addListenerForSingleValueEvent(new ValueEventListener() {
+            dataSource.read(coursePath(courseId), new OperationCallback<Object>() {
                 @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (!snapshot.exists()) {
+                public void onSuccess(Object existing) {
+                    trace.mark(WriteTrace.Stage.READ);
+                    if (existing == null) {
                         Log.w(TAG, "deleteCourse: Course with ID " + courseId + " does not exist");
                         callback.onError(new Exception("Course not found with ID: " + courseId));
                         return;
                     }
 
-                    Course course = snapshot.getValue(Course.class);
-                    Log.d(TAG, "deleteCourse: Found course to delete: " + (course != null ? course.getCourseName() : "null"));
-
-                    Log.d(TAG, "deleteCourse: Removing course from Firebase");
-                    coursesRef.child(courseId).removeValue()
-                            .addOnSuccessListener(aVoid -> {
-                                Log.i(TAG, "deleteCourse: Course deleted successfully with ID: " + courseId);
-                                callback.onSuccess(null);
-                            })
-                            .addOnFailureListener(e -> {
-                                Log.e(TAG, "deleteCourse: Failed to delete course with ID: " + courseId, e);
-                                callback.onError(new Exception("Failed to delete course: " + e.getMessage(), e));
+                    final Course deleted = CourseMapper.fromValue(courseId, existing);
+                    Log.d(TAG, "deleteCourse: Found course to delete: " + (deleted != null ? deleted.getCourseName() : "null"));
+
+                    Map<String, Object> values = new HashMap<>();
+                    values.put(coursePath(courseId), null);
+                    values.put(summaryPath(courseId), null);
+                    values.put(tombstonePath(courseId), CourseMapper.tombstoneValue());
+
+                    Log.d(TAG, "deleteCourse: Removing course");
+                    writeTraces.sent(trace, courseId, null);
+                    dataSource.update(values,
+                            new OperationCallback<Void>() {
+                                @Override
+                                public void onSuccess(Void result) {
+                                    Log.i(TAG, "deleteCourse: Course deleted successfully with ID: " + courseId);
+                                    courseCache.invalidate(courseId);
+                                    if (deleted != null) {
+                                        releaseCode(deleted.getCourseCode(), courseId);
+                                    }
+                                    callback.onSuccess(null);
+                                }
+
+                                @Override
+                                public void onError(@NonNull Exception e) {
+                                    Log.e(TAG, "deleteCourse: Failed to delete course with ID: " + courseId, e);
+                                    callback.onError(new Exception("Failed to delete course: " + e.getMessage(), e));
+                                }
                             });
                 }
 
                 @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    Log.e(TAG, "deleteCourse: Error checking if course exists", error.toException());
-                    callback.onError(new Exception("Error verifying course existence: " + error.getMessage(), error.toException()));
+                public void onError(@NonNull Exception e) {
+                    Log.e(TAG, "deleteCourse: Error checking if course exists", e);
+                    callback.onError(new Exception("Error verifying course existence: " + e.getMessage(), e));
                 }
             });
         } catch (Exception e) {
@@ -279,7 +838,73 @@ public class CourseRepository {
         }
     }
 
-    public void getCourseById(@NonNull final String courseId, @NonNull final OperationCallback<Course> callback) {
+    /**
+     * Deletes several courses, with their summaries, in one multi-path
+     * write, then releases their code index entries. Unlike {@link #deleteCourse} nothing is
+     * read first: the courses passed in (list summaries are enough) supply the derived paths,
+     * and courses that are already gone are skipped by the server as no-op removals.
+     */
+    public void deleteCourses(@NonNull Collection<Course> courses, @NonNull OperationCallback<Void> callback) {
+        WriteTrace trace = writeTraces.begin(RepositoryMetrics.Operation.DELETE_BATCH);
+        doDeleteCourses(courses, trace, metrics.timed(RepositoryMetrics.Operation.DELETE_BATCH, writeTraces.traced(trace, callback)));
+    }
+
+    private void doDeleteCourses(@NonNull Collection<Course> courses, @NonNull WriteTrace trace,
+                                 @NonNull final OperationCallback<Void> callback) {
+        try {
+            Log.d(TAG, "deleteCourses: Deleting " + courses.size() + " courses in one write");
+
+            if (courses.isEmpty()) {
+                callback.onSuccess(null);
+                return;
+            }
+
+            final List<Course> deleted = new ArrayList<>(courses);
+            final List<String> courseIds = new ArrayList<>(courses.size());
+            Map<String, Object> values = new HashMap<>(courses.size() * 20 / 3 + 1);
+            for (Course course : courses) {
+                String courseId = course.getId();
+                if (courseId == null || courseId.isEmpty()) {
+                    callback.onError(new Exception("Course ID cannot be empty"));
+                    return;
+                }
+                courseIds.add(courseId);
+                values.put(coursePath(courseId), null);
+                values.put(summaryPath(courseId), null);
+                values.put(tombstonePath(courseId), CourseMapper.tombstoneValue());
+            }
+            trace.mark(WriteTrace.Stage.VALIDATED);
+            // One multi-path write: the listener drops every course at once, so the first stands for all
+            writeTraces.sent(trace, courseIds.get(0), null);
+
+            dataSource.update(values, new OperationCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    Log.i(TAG, "deleteCourses: Deleted " + courseIds.size() + " courses");
+                    for (Course course : deleted) {
+                        courseCache.invalidate(course.getId());
+                        releaseCode(course.getCourseCode(), course.getId());
+                    }
+                    callback.onSuccess(null);
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    Log.e(TAG, "deleteCourses: Failed to delete " + courseIds.size() + " courses", e);
+                    callback.onError(new Exception("Failed to delete courses: " + e.getMessage(), e));
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "deleteCourses: Failed to delete courses", e);
+            callback.onError(new Exception("Failed to delete courses: " + e.getMessage(), e));
+        }
+    }
+
+    public void getCourseById(@NonNull String courseId, @NonNull OperationCallback<Course> callback) {
+        doGetCourseById(courseId, metrics.timed(RepositoryMetrics.Operation.GET_BY_ID, callback));
+    }
+
+    private void doGetCourseById(@NonNull final String courseId, @NonNull final OperationCallback<Course> callback) {
         try {
             Log.d(TAG, "getCourseById: Getting course with ID: " + courseId);
 
@@ -289,36 +914,62 @@ public class CourseRepository {
                 return;
             }
 
-            coursesRef.child(courseId).addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (!snapshot.exists()) {
-                        Log.w(TAG, "getCourseById: Course with ID " + courseId + " does not exist");
-                        callback.onSuccess(null);
-                        return;
-                    }
+            Course cached = isCourseCacheLive() ? courseCache.get(courseId) : null;
+            if (cached != null) {
+                Log.d(TAG, "getCourseById: Served from cache: " + cached.getCourseName());
+                metrics.recordCourseCacheLookup(true);
+                callback.onSuccess(cached);
+                return;
+            }
+            metrics.recordCourseCacheLookup(false);
 
-                    try {
-                        Course course = snapshot.getValue(Course.class);
+            if (!courseReads.join(courseId, callback)) {
+                Log.d(TAG, "getCourseById: Joined in-flight read for ID: " + courseId);
+                metrics.recordCoalescedRead();
+                return;
+            }
+
+            final long readStamp = courseCache.stamp();
+            try {
+                dataSource.read(coursePath(courseId), new OperationCallback<Object>() {
+                    @Override
+                    public void onSuccess(Object value) {
+                        if (value == null) {
+                            Log.w(TAG, "getCourseById: Course with ID " + courseId + " does not exist");
+                            courseReads.complete(courseId, null);
+                            return;
+                        }
+
+                        Course course;
+                        try {
+                            course = CourseMapper.fromValue(courseId, value);
+                        } catch (Exception e) {
+                            Log.e(TAG, "getCourseById: Error parsing course data", e);
+                            courseReads.fail(courseId, new Exception("Error parsing course data: " + e.getMessage(), e));
+                            return;
+                        }
                         if (course != null) {
-                            course.setId(courseId);
                             Log.d(TAG, "getCourseById: Successfully retrieved course: " + course.getCourseName());
+                            if (isCourseCacheLive()) {
+                                courseCache.putIfUnchangedSince(course, readStamp);
+                            }
                         } else {
                             Log.w(TAG, "getCourseById: Course data is null after parsing");
                         }
-                        callback.onSuccess(course);
-                    } catch (Exception e) {
-                        Log.e(TAG, "getCourseById: Error parsing course data", e);
-                        callback.onError(new Exception("Error parsing course data: " + e.getMessage(), e));
+                        courseReads.complete(courseId, course);
                     }
-                }
 
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    Log.e(TAG, "getCourseById: Failed to get course with ID: " + courseId, error.toException());
-                    callback.onError(new Exception("Failed to retrieve course: " + error.getMessage(), error.toException()));
-                }
-            });
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        Log.e(TAG, "getCourseById: Failed to get course with ID: " + courseId, e);
+                        courseReads.fail(courseId, new Exception("Failed to retrieve course: " + e.getMessage(), e));
+                    }
+                });
+            } catch (Exception e) {
+                // Fails every caller that joined this read, including this one
+                Log.e(TAG, "getCourseById: Failed to start read for ID: " + courseId, e);
+                courseReads.fail(courseId, new Exception("Failed to retrieve course: " + e.getMessage(), e));
+            }
         } catch (Exception e) {
             Log.e(TAG, "getCourseById: Failed to get course with ID: " + courseId, e);
             callback.onError(new Exception("Failed to retrieve course: " + e.getMessage(), e));
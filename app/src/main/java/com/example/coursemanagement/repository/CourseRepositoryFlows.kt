@@ -0,0 +1,153 @@
+@file:JvmName("CourseRepositoryFlows")
+
+package com.example.coursemanagement.repository
+
+import androidx.core.util.Consumer
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.lifecycleScope
+import androidx.lifecycle.repeatOnLifecycle
+import com.example.coursemanagement.model.Course
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.android.awaitFrame
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.flow.drop
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.scan
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+// Coroutine API over CourseRepository. Every flow removes its database listener when its
+// collector is cancelled and keeps only the newest value when the collector falls behind.
+
+/**
+ * Course list, newest first. Snapshots are decoded on [Dispatchers.Default]; a snapshot
+ * that arrives while the previous one is still being decoded replaces it, and so does a
+ * list decoded while the collector is still busy with the previous one. At most one list
+ * is handed to the collector per display frame.
+ */
+fun CourseRepository.coursesFlow(): Flow<List<Course>> = coursesFlow { awaitFrame() }
+
+/** [coursesFlow] that waits on [nextFrame] instead of the Choreographer before each list. */
+internal fun CourseRepository.coursesFlow(nextFrame: suspend () -> Unit): Flow<List<Course>> =
+    summarySnapshots()
+        .conflate()
+        .scan(CourseCatalog.EMPTY) { previous, children ->
+            decodeCatalog(previous, children).also { writeTraces.onCatalog(it) }
+        }
+        .drop(1)
+        .map { catalog -> catalog.courses }
+        .flowOn(Dispatchers.Default)
+        // Fuses with the channel flowOn adds, which otherwise buffers 64 stale lists
+        .conflate()
+        .oncePerFrame(metrics, nextFrame)
+
+/**
+ * Emits the newest value after [nextFrame] returns, skipping any value replaced while
+ * waiting or while the collector was busy. Every value is counted in [metrics], as
+ * collapsed when it never reached the collector.
+ */
+private fun <T : Any> Flow<T>.oncePerFrame(metrics: RepositoryMetrics, nextFrame: suspend () -> Unit): Flow<T> = flow {
+    coroutineScope {
+        val pending = AtomicReference<T?>()
+        val ready = Channel<Unit>(Channel.CONFLATED)
+        launch {
+            collect { value ->
+                metrics.recordListEmission(pending.getAndSet(value) != null)
+                ready.trySend(Unit)
+            }
+            ready.close()
+        }
+        // Emitting runs the collector here, so nothing is taken from pending while it is busy
+        for (signal in ready) {
+            nextFrame()
+            pending.getAndSet(null)?.let { value -> emit(value) }
+        }
+    }
+}
+
+fun CourseRepository.catalogSummaryFlow(): Flow<CatalogSummary> = callbackFlow {
+    val registration = observeCatalogSummary(object : CourseRepository.SummaryListener {
+        override fun onSummaryUpdated(summary: CatalogSummary) {
+            trySend(summary)
+        }
+
+        override fun onError(e: Exception) {
+            close(e)
+        }
+    })
+    awaitClose { registration.remove() }
+}.conflate()
+
+private fun CourseRepository.summarySnapshots(): Flow<Map<String, Any?>> = callbackFlow {
+    val registration = observeSummaryChildren(object : CourseDataSource.ChildrenListener {
+        override fun onChildren(children: Map<String, Any?>) {
+            trySend(children)
+        }
+
+        override fun onError(e: Exception) {
+            close(e)
+        }
+    })
+    awaitClose { registration.remove() }
+}
+
+// Cancelling the caller stops waiting for the result; a write already sent still completes.
+
+suspend fun CourseRepository.addCourse(course: Course): String =
+    await { callback -> addCourse(course, callback) }
+
+suspend fun CourseRepository.updateCourse(course: Course) {
+    await<Void?> { callback -> updateCourse(course, callback) }
+}
+
+suspend fun CourseRepository.deleteCourse(courseId: String) {
+    await<Void?> { callback -> deleteCourse(courseId, callback) }
+}
+
+/** Null when no course has this id. */
+suspend fun CourseRepository.getCourseById(courseId: String): Course? =
+    await { callback -> getCourseById(courseId, callback) }
+
+private suspend inline fun <T> await(crossinline start: (CourseRepository.OperationCallback<T>) -> Unit): T =
+    suspendCancellableCoroutine { continuation ->
+        start(object : CourseRepository.OperationCallback<T> {
+            override fun onSuccess(result: T) {
+                continuation.resume(result)
+            }
+
+            override fun onError(e: Exception) {
+                continuation.resumeWithException(e)
+            }
+        })
+    }
+
+/**
+ * Collects [flow] on the main thread with `repeatOnLifecycle(STARTED)`: collection stops
+ * when [owner] stops and restarts when it starts again, so [onEach] never runs while the
+ * owner is stopped or after it is destroyed. A failing flow is reported to [onError].
+ * This is the entry point for Java callers, which cannot call `repeatOnLifecycle` directly.
+ */
+fun <T> collectWhileStarted(
+    owner: LifecycleOwner,
+    flow: Flow<T>,
+    onEach: Consumer<T>,
+    onError: Consumer<Throwable>
+): Job = owner.lifecycleScope.launch {
+    owner.repeatOnLifecycle(Lifecycle.State.STARTED) {
+        flow.catch { e -> onError.accept(e) }
+            .collect { value -> onEach.accept(value) }
+    }
+}
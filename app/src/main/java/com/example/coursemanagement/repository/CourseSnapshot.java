@@ -0,0 +1,214 @@
+package com.example.coursemanagement.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * The first rows of the course list as last rendered, kept in a small binary file so the
+ * next launch can show them before Firebase answers. The file is memory-mapped and decoded
+ * field by field; a file with another magic, version or checksum reads as empty, and the
+ * live list replaces the snapshot as soon as it arrives.
+ *
+ * <p>Layout, big-endian: magic, version, course count, then per course the id, name and
+ * code as length-prefixed UTF-8, credit hours, {@link CourseType} code and timestamp, and
+ * a CRC32 of everything before it.
+ */
+public final class CourseSnapshot {
+
+    private static final String TAG = "CourseSnapshot";
+
+    private static final String FILE_NAME = "course_snapshot.bin";
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    // Bump when the layout changes; older files are then ignored and rewritten
+    static final int VERSION = 1;
+    // A few screens of rows; more would only slow the first frame
+    static final int MAX_COURSES = 40;
+    // Anything larger was not written by this class
+    private static final int MAX_FILE_BYTES = 256 * 1024;
+
+    private static final int HEADER_BYTES = 4 + 4 + 4;
+    private static final int CHECKSUM_BYTES = 4;
+
+    private static CourseSnapshot instance;
+
+    private final File file;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Last list passed to save(), main thread
+    private List<Course> saved = Collections.emptyList();
+
+    private CourseSnapshot(@NonNull File file) {
+        this.file = file;
+    }
+
+    @NonNull
+    public static synchronized CourseSnapshot getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new CourseSnapshot(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+        }
+        return instance;
+    }
+
+    /**
+     * Courses from the last {@link #save}, newest first, or an empty list. Reads a file of a
+     * few kilobytes; meant to be called once on the main thread before the first frame.
+     */
+    @NonNull
+    public List<Course> read() {
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r");
+             FileChannel channel = input.getChannel()) {
+            long size = channel.size();
+            if (size > MAX_FILE_BYTES) {
+                throw new IOException("Snapshot is " + size + " bytes");
+            }
+            List<Course> courses = decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            saved = courses;
+            Log.d(TAG, "read: " + courses.size() + " courses from snapshot");
+            return courses;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "read: Discarding unreadable snapshot", e);
+            if (!file.delete()) {
+                Log.w(TAG, "read: Failed to delete " + file);
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the first {@link #MAX_COURSES} of {@code courses} in the
+     * background. Call it with the list as rendered from live data; unchanged lists are skipped.
+     */
+    public void save(@NonNull List<Course> courses) {
+        final List<Course> head = new ArrayList<>(courses.subList(0, Math.min(MAX_COURSES, courses.size())));
+        if (head.equals(saved)) {
+            return;
+        }
+        saved = head;
+        writer.execute(() -> {
+            File temp = new File(file.getPath() + ".tmp");
+            try {
+                try (FileOutputStream output = new FileOutputStream(temp)) {
+                    output.write(encode(head));
+                    output.getFD().sync();
+                }
+                // Readers see the old file or the new one, never a partial write
+                if (!temp.renameTo(file)) {
+                    throw new IOException("Failed to rename " + temp + " to " + file);
+                }
+                Log.d(TAG, "save: Wrote " + head.size() + " courses");
+            } catch (IOException e) {
+                Log.e(TAG, "save: Failed to write snapshot", e);
+                temp.delete();
+            }
+        });
+    }
+
+    @NonNull
+    static byte[] encode(@NonNull List<Course> courses) {
+        List<byte[]> strings = new ArrayList<>(courses.size() * 3);
+        int size = HEADER_BYTES + CHECKSUM_BYTES;
+        for (Course course : courses) {
+            for (String value : new String[]{course.getId(), course.getCourseName(), course.getCourseCode()}) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                strings.add(bytes);
+                size += 4 + bytes.length;
+            }
+            size += 4 + 1 + 8;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(courses.size());
+        int string = 0;
+        for (Course course : courses) {
+            for (int i = 0; i < 3; i++) {
+                byte[] bytes = strings.get(string++);
+                buffer.putInt(bytes.length).put(bytes);
+            }
+            buffer.putInt(course.getCreditHours())
+                    .put(course.getType().getCode())
+                    .putLong(course.getTimestamp());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    @NonNull
+    static List<Course> decode(@NonNull ByteBuffer buffer) throws IOException {
+        int size = buffer.remaining();
+        if (size < HEADER_BYTES + CHECKSUM_BYTES) {
+            throw new IOException("Snapshot is " + size + " bytes");
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.limit(body.position() + size - CHECKSUM_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(buffer.position() + size - CHECKSUM_BYTES)) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+
+        if (body.getInt() != MAGIC) {
+            throw new IOException("Not a course snapshot");
+        }
+        int version = body.getInt();
+        if (version != VERSION) {
+            throw new IOException("Snapshot version " + version + ", expected " + VERSION);
+        }
+        int count = body.getInt();
+        if (count < 0 || count > MAX_COURSES) {
+            throw new IOException("Snapshot holds " + count + " courses");
+        }
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = readString(body);
+            String name = readString(body);
+            String code = readString(body);
+            int creditHours = body.getInt();
+            CourseType type = CourseType.fromCode(body.get());
+            long timestamp = body.getLong();
+            courses.add(new Course(id, name, code, creditHours, type, timestamp));
+        }
+        if (body.hasRemaining()) {
+            throw new IOException("Snapshot has " + body.remaining() + " trailing bytes");
+        }
+        return Collections.unmodifiableList(courses);
+    }
+
+    @NonNull
+    private static String readString(@NonNull ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.coursemanagement.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link CourseDiskStore} current without downloading the catalog again. Every course
+ * write stamps {@code updatedAt} with server time and every delete leaves a tombstone under
+ * {@code courseTombstones}, so a sync reads only the summaries and tombstones stamped since
+ * the store's mark. Each sync moves the mark at least to the server time its reads started,
+ * so summaries written before {@code updatedAt} existed do not hold it at 0. A store that
+ * was never filled, or has not synced for about as long as tombstones are kept, is refilled
+ * in full; that age is measured on the device clock between syncs, never against server
+ * times. Both paths need {@code ".indexOn": "updatedAt"} in the database rules, or the
+ * server sends everything and the client filters.
+ */
+final class CourseSync {
+
+    private static final String TAG = "CourseSync";
+
+    // Tombstones older than this are purged by compact()
+    static final long TOMBSTONE_TTL_MS = TimeUnit.DAYS.toMillis(7);
+    // A store not synced for this long may have missed purged tombstones; a day short of
+    // the TTL leaves room for the clock of the device that purges them
+    static final long FULL_SYNC_AFTER_MS = TOMBSTONE_TTL_MS - TimeUnit.DAYS.toMillis(1);
+    // Changes just before the mark are read again: local writes are stamped with the
+    // client's estimate of server time, which can run ahead of writes committed meanwhile
+    static final long OVERLAP_MS = TimeUnit.MINUTES.toMillis(1);
+
+    // Decoding and store writes; the data source calls back on its own thread
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final CourseDataSource dataSource;
+    private final CourseDiskStore store;
+
+    CourseSync(@NonNull CourseDataSource dataSource, @NonNull CourseDiskStore store) {
+        this.dataSource = dataSource;
+        this.store = store;
+    }
+
+    /** Brings the store up to date; the callback receives the number of rows written or removed. */
+    void run(@NonNull final CourseRepository.OperationCallback<Integer> callback) {
+        WORKER.execute(() -> {
+            final long syncedAt;
+            final long checkedAt;
+            try {
+                syncedAt = store.getSyncedAt();
+                checkedAt = store.getCheckedAt();
+            } catch (Exception e) {
+                Log.e(TAG, "run: Failed to read the sync mark", e);
+                callback.onError(new Exception("Failed to sync courses: " + e.getMessage(), e));
+                return;
+            }
+            if (needsFullSync(syncedAt, checkedAt, System.currentTimeMillis())) {
+                fullSync(callback);
+            } else {
+                deltaSync(syncedAt, callback);
+            }
+        });
+    }
+
+    /**
+     * Whether a store synced up to server time {@code syncedAt}, whose last sync succeeded
+     * at device time {@code checkedAt}, must be refilled at device time {@code now}. A clock
+     * set back before the last sync also refills, since the real gap is unknown.
+     */
+    static boolean needsFullSync(long syncedAt, long checkedAt, long now) {
+        return syncedAt == 0 || checkedAt == 0 || now < checkedAt || now - checkedAt > FULL_SYNC_AFTER_MS;
+    }
+
+    private void fullSync(@NonNull final CourseRepository.OperationCallback<Integer> callback) {
+        Log.i(TAG, "fullSync: Reading every course summary");
+        final long readAt = dataSource.serverTimeMillis();
+        dataSource.read(CourseRepository.SUMMARIES_PATH, new CourseRepository.OperationCallback<Object>() {
+            @Override
+            public void onSuccess(final Object value) {
+                WORKER.execute(() -> {
+                    Map<String, Course> courses = new LinkedHashMap<>();
+                    long syncedAt = decode(children(value), courses, readAt);
+                    try {
+                        store.replaceAll(courses.values(), syncedAt, System.currentTimeMillis());
+                    } catch (Exception e) {
+                        Log.e(TAG, "fullSync: Failed to write " + courses.size() + " courses", e);
+                        callback.onError(new Exception("Failed to sync courses: " + e.getMessage(), e));
+                        return;
+                    }
+                    Log.i(TAG, "fullSync: Stored " + courses.size() + " courses, synced to " + syncedAt);
+                    callback.onSuccess(courses.size());
+                });
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "fullSync: Failed to read course summaries", e);
+                callback.onError(new Exception("Failed to sync courses: " + e.getMessage(), e));
+            }
+        });
+    }
+
+    private void deltaSync(final long syncedAt, @NonNull final CourseRepository.OperationCallback<Integer> callback) {
+        final long since = Math.max(0L, syncedAt - OVERLAP_MS);
+        final long readAt = dataSource.serverTimeMillis();
+        dataSource.readByChild(CourseRepository.SUMMARIES_PATH, CourseMapper.FIELD_UPDATED_AT, since, Long.MAX_VALUE,
+                new CourseRepository.OperationCallback<Map<String, Object>>() {
+                    @Override
+                    public void onSuccess(final Map<String, Object> changed) {
+                        dataSource.readByChild(CourseRepository.TOMBSTONES_PATH, CourseMapper.FIELD_UPDATED_AT, since, Long.MAX_VALUE,
+                                new CourseRepository.OperationCallback<Map<String, Object>>() {
+                                    @Override
+                                    public void onSuccess(final Map<String, Object> deleted) {
+                                        WORKER.execute(() -> applyDelta(changed, deleted, Math.max(syncedAt, readAt), callback));
+                                    }
+
+                                    @Override
+                                    public void onError(@NonNull Exception e) {
+                                        Log.e(TAG, "deltaSync: Failed to read tombstones since " + since, e);
+                                        callback.onError(new Exception("Failed to sync courses: " + e.getMessage(), e));
+                                    }
+                                });
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        Log.e(TAG, "deltaSync: Failed to read summaries changed since " + since, e);
+                        callback.onError(new Exception("Failed to sync courses: " + e.getMessage(), e));
+                    }
+                });
+    }
+
+    // Worker thread
+    private void applyDelta(@NonNull Map<String, Object> changed, @NonNull Map<String, Object> deleted,
+                            long syncedAt, @NonNull CourseRepository.OperationCallback<Integer> callback) {
+        Map<String, Course> upserts = new LinkedHashMap<>();
+        long mark = decode(changed, upserts, syncedAt);
+        List<String> removals = new ArrayList<>(deleted.size());
+        for (Map.Entry<String, Object> tombstone : deleted.entrySet()) {
+            // Ids are never reused, so a tombstone always wins
+            upserts.remove(tombstone.getKey());
+            removals.add(tombstone.getKey());
+            mark = Math.max(mark, CourseMapper.updatedAt(tombstone.getValue()));
+        }
+        try {
+            store.apply(upserts, removals, mark, System.currentTimeMillis());
+        } catch (Exception e) {
+            Log.e(TAG, "applyDelta: Failed to write " + (upserts.size() + removals.size()) + " changes", e);
+            callback.onError(new Exception("Failed to sync courses: " + e.getMessage(), e));
+            return;
+        }
+        Log.d(TAG, "applyDelta: " + upserts.size() + " changed, " + removals.size() + " deleted, synced to " + mark);
+        callback.onSuccess(upserts.size() + removals.size());
+    }
+
+    /**
+     * Deletes tombstones older than {@link #TOMBSTONE_TTL_MS}; the callback receives how many.
+     * The cutoff comes from the device clock, which the TTL dwarfs.
+     */
+    static void compact(@NonNull final CourseDataSource dataSource,
+                        @NonNull final CourseRepository.OperationCallback<Integer> callback) {
+        final long cutoff = System.currentTimeMillis() - TOMBSTONE_TTL_MS;
+        dataSource.readByChild(CourseRepository.TOMBSTONES_PATH, CourseMapper.FIELD_UPDATED_AT, 0L, cutoff,
+                new CourseRepository.OperationCallback<Map<String, Object>>() {
+                    @Override
+                    public void onSuccess(final Map<String, Object> expired) {
+                        if (expired.isEmpty()) {
+                            callback.onSuccess(0);
+                            return;
+                        }
+                        Map<String, Object> values = new HashMap<>(expired.size() * 4 / 3 + 1);
+                        for (String courseId : expired.keySet()) {
+                            values.put(CourseRepository.tombstonePath(courseId), null);
+                        }
+                        dataSource.update(values, new CourseRepository.OperationCallback<Void>() {
+                            @Override
+                            public void onSuccess(Void result) {
+                                Log.i(TAG, "compact: Purged " + expired.size() + " tombstones older than " + cutoff);
+                                callback.onSuccess(expired.size());
+                            }
+
+                            @Override
+                            public void onError(@NonNull Exception e) {
+                                Log.e(TAG, "compact: Failed to purge " + expired.size() + " tombstones", e);
+                                callback.onError(new Exception("Failed to purge tombstones: " + e.getMessage(), e));
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        Log.e(TAG, "compact: Failed to read tombstones", e);
+                        callback.onError(new Exception("Failed to purge tombstones: " + e.getMessage(), e));
+                    }
+                });
+    }
+
+    // Decodes summaries into courses and returns the newest updatedAt among them, at least mark
+    private static long decode(@NonNull Map<String, Object> children, @NonNull Map<String, Course> courses, long mark) {
+        for (Map.Entry<String, Object> child : children.entrySet()) {
+            Course course = CourseMapper.fromValue(child.getKey(), child.getValue());
+            if (course == null) {
+                Log.w(TAG, "decode: Skipping unparseable course " + child.getKey());
+                continue;
+            }
+            courses.put(course.getId(), course);
+            mark = Math.max(mark, CourseMapper.updatedAt(child.getValue()));
+        }
+        return mark;
+    }
+
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> children(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Collections.<String, Object>emptyMap();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.coursemanagement.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Background upkeep for {@link CourseSync}: a periodic delta sync so the course store is
+ * close to current when the list opens, and a daily purge of expired tombstones. Both run
+ * only with a network connection; a failed run is retried with WorkManager's backoff.
+ */
+public final class CourseSyncWorker extends Worker {
+
+    private static final String TAG = "CourseSyncWorker";
+
+    static final String KEY_TASK = "task";
+    static final String TASK_SYNC = "sync";
+    static final String TASK_COMPACT = "compact";
+
+    private static final String SYNC_WORK = "courseStoreSync";
+    private static final String COMPACT_WORK = "courseTombstoneCompaction";
+    private static final long SYNC_INTERVAL_HOURS = 6;
+    private static final long COMPACT_INTERVAL_DAYS = 1;
+    // A run that has not finished by then is retried rather than holding the worker thread
+    private static final long TIMEOUT_SECONDS = 60;
+
+    public CourseSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /** Enqueues both periodic jobs; ones already scheduled are kept. */
+    public static void schedule(@NonNull Context context) {
+        try {
+            WorkManager workManager = WorkManager.getInstance(context);
+            Constraints online = new Constraints.Builder()
+                    .setRequiredNetworkType(NetworkType.CONNECTED)
+                    .build();
+            workManager.enqueueUniquePeriodicWork(SYNC_WORK, ExistingPeriodicWorkPolicy.KEEP,
+                    new PeriodicWorkRequest.Builder(CourseSyncWorker.class, SYNC_INTERVAL_HOURS, TimeUnit.HOURS)
+                            .setConstraints(online)
+                            .setInputData(new Data.Builder().putString(KEY_TASK, TASK_SYNC).build())
+                            .build());
+
+            Constraints idle = new Constraints.Builder()
+                    .setRequiredNetworkType(NetworkType.CONNECTED)
+                    .setRequiresBatteryNotLow(true)
+                    .build();
+            workManager.enqueueUniquePeriodicWork(COMPACT_WORK, ExistingPeriodicWorkPolicy.KEEP,
+                    new PeriodicWorkRequest.Builder(CourseSyncWorker.class, COMPACT_INTERVAL_DAYS, TimeUnit.DAYS)
+                            .setConstraints(idle)
+                            .setInputData(new Data.Builder().putString(KEY_TASK, TASK_COMPACT).build())
+                            .build());
+            Log.d(TAG, "schedule: Course sync and tombstone compaction scheduled");
+        } catch (Exception e) {
+            Log.e(TAG, "schedule: Error scheduling course sync", e);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String task = getInputData().getString(KEY_TASK);
+        // The process may have been started for this job alone
+        CachePolicy.DEFAULT.configure(FirebaseDatabase.getInstance());
+
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        CourseRepository.OperationCallback<Integer> callback = new CourseRepository.OperationCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer changed) {
+                Log.i(TAG, "doWork: " + task + " finished, " + changed + " changes");
+                done.countDown();
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                failure.set(e);
+                done.countDown();
+            }
+        };
+
+        if (TASK_SYNC.equals(task)) {
+            CourseRepository.getInstance().syncCourseStore(getApplicationContext(), callback);
+        } else if (TASK_COMPACT.equals(task)) {
+            CourseRepository.getInstance().compactTombstones(callback);
+        } else {
+            Log.e(TAG, "doWork: Unknown task " + task);
+            return Result.failure();
+        }
+
+        try {
+            if (!done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Log.w(TAG, "doWork: " + task + " timed out after " + TIMEOUT_SECONDS + "s");
+                return Result.retry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        if (failure.get() != null) {
+            Log.w(TAG, "doWork: " + task + " failed, will retry", failure.get());
+            return Result.retry();
+        }
+        return Result.success();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.coursemanagement.repository;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+/**
+ * How many courses the list may hold in memory on this device, from the app's heap limit
+ * ({@link ActivityManager#getMemoryClass()}). Up to {@link #getMaxInMemoryCourses()} the
+ * whole catalog is kept as a list; beyond that the list is windowed, and the window size
+ * shrinks with the level passed to {@code onTrimMemory}.
+ */
+public final class CourseWindowBudget {
+
+    // A decoded course with its strings, counted twice: once in the catalog, once in the adapter
+    static final int BYTES_PER_COURSE = 2 * 400;
+    // Share of the heap the course list may use
+    private static final int HEAP_SHARE_DIVISOR = 8;
+
+    static final int MIN_WINDOW = 200;
+    static final int MAX_WINDOW = 2000;
+
+    private final int maxInMemoryCourses;
+    private final int windowSize;
+
+    CourseWindowBudget(int memoryClassMb, boolean lowRamDevice) {
+        long budgetBytes = (long) memoryClassMb * 1024 * 1024 / HEAP_SHARE_DIVISOR;
+        if (lowRamDevice) {
+            budgetBytes /= 2;
+        }
+        this.maxInMemoryCourses = (int) Math.min(Integer.MAX_VALUE, budgetBytes / BYTES_PER_COURSE);
+        this.windowSize = Math.max(MIN_WINDOW, Math.min(MAX_WINDOW, maxInMemoryCourses / 16));
+    }
+
+    @NonNull
+    public static CourseWindowBudget from(@NonNull Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return new CourseWindowBudget(activityManager.getMemoryClass(), activityManager.isLowRamDevice());
+    }
+
+    /** Largest catalog shown as a plain in-memory list. */
+    public int getMaxInMemoryCourses() {
+        return maxInMemoryCourses;
+    }
+
+    /** Courses a windowed list keeps loaded at the given {@code onTrimMemory} level (0 when none was reported). */
+    public int getWindowSize(int trimLevel) {
+        if (trimLevel >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            return MIN_WINDOW;
+        }
+        if (trimLevel >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            return Math.max(MIN_WINDOW, windowSize / 2);
+        }
+        return windowSize;
+    }
+}
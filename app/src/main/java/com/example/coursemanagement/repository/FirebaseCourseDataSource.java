@@ -0,0 +1,334 @@
+package com.example.coursemanagement.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class FirebaseCourseDataSource implements CourseDataSource {
+
+    private static final String TAG = "FirebaseCourseDataSource";
+
+    private final DatabaseReference root;
+    // Mirrors .info/connected, which Firebase keeps current locally without a server read
+    private volatile boolean connected;
+    // Mirrors .info/serverTimeOffset, the estimated server clock minus the device clock
+    private volatile long serverTimeOffsetMs;
+
+    public FirebaseCourseDataSource(@NonNull FirebaseDatabase database) {
+        this.root = database.getReference();
+        database.getReference(".info/connected").addValueEventListener(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                connected = Boolean.TRUE.equals(snapshot.getValue(Boolean.class));
+                Log.d(TAG, "connected: " + connected);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "connected: Listener cancelled", error.toException());
+            }
+        });
+        database.getReference(".info/serverTimeOffset").addValueEventListener(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Object offset = snapshot.getValue();
+                serverTimeOffsetMs = offset instanceof Number ? ((Number) offset).longValue() : 0L;
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "serverTimeOffset: Listener cancelled", error.toException());
+            }
+        });
+        Log.d(TAG, "FirebaseCourseDataSource initialized for app: " + database.getApp().getName());
+    }
+
+    @NonNull
+    @Override
+    public String newKey(@NonNull String path) {
+        String key = root.child(path).push().getKey();
+        if (key == null) {
+            throw new IllegalStateException("Firebase generated a null key for " + path);
+        }
+        return key;
+    }
+
+    @NonNull
+    @Override
+    public Registration observeChildren(@NonNull String path, @NonNull final ChildrenListener listener) {
+        // Ordered by the server; push IDs sort by creation time, so the list needs no client sort
+        final Query query = root.child(path).orderByKey();
+        final ValueEventListener valueEventListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Map<String, Object> children = new LinkedHashMap<>((int) snapshot.getChildrenCount() * 4 / 3 + 1);
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    children.put(child.getKey(), child.getValue());
+                }
+                listener.onChildren(children);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        };
+        query.addValueEventListener(valueEventListener);
+        return () -> query.removeEventListener(valueEventListener);
+    }
+
+    @NonNull
+    @Override
+    public Registration observeChildEvents(@NonNull String path, @NonNull final ChildEventListener listener) {
+        final Query query = root.child(path).orderByKey();
+        final com.google.firebase.database.ChildEventListener childEventListener = new com.google.firebase.database.ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+                listener.onChildAdded(snapshot.getKey(), snapshot.getValue());
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+                listener.onChildChanged(snapshot.getKey(), snapshot.getValue());
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                listener.onChildRemoved(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+                // Keys never change, so under orderByKey children never move
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        };
+        query.addChildEventListener(childEventListener);
+        return () -> query.removeEventListener(childEventListener);
+    }
+
+    @NonNull
+    @Override
+    public Registration observeChildEventsSince(@NonNull String path, @NonNull String field, long startAt,
+                                                @NonNull final ChildEventListener listener) {
+        final Query query = root.child(path).orderByChild(field).startAt(startAt);
+        final com.google.firebase.database.ChildEventListener childEventListener = new com.google.firebase.database.ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+                listener.onChildAdded(snapshot.getKey(), snapshot.getValue());
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+                listener.onChildChanged(snapshot.getKey(), snapshot.getValue());
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                listener.onChildRemoved(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+                // Moves within the range change nothing the listener tracks
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        };
+        query.addChildEventListener(childEventListener);
+        return () -> query.removeEventListener(childEventListener);
+    }
+
+    @Override
+    public void read(@NonNull String path, @NonNull final CourseRepository.OperationCallback<Object> callback) {
+        root.child(path).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                callback.onSuccess(snapshot.exists() ? snapshot.getValue() : null);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                callback.onError(error.toException());
+            }
+        });
+    }
+
+    @Override
+    public void readPage(@NonNull String path, @Nullable final String startAfterKey, final int limit,
+                         @NonNull final CourseRepository.OperationCallback<Map<String, Object>> callback) {
+        Query query = root.child(path).orderByKey();
+        if (startAfterKey != null) {
+            // startAt is inclusive, so fetch one extra and drop the start key
+            query = query.startAt(startAfterKey).limitToFirst(limit + 1);
+        } else {
+            query = query.limitToFirst(limit);
+        }
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Map<String, Object> children = new LinkedHashMap<>();
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    if (!child.getKey().equals(startAfterKey) && children.size() < limit) {
+                        children.put(child.getKey(), child.getValue());
+                    }
+                }
+                callback.onSuccess(children);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                callback.onError(error.toException());
+            }
+        });
+    }
+
+    @Override
+    public void readByChild(@NonNull String path, @NonNull String field, long startAt, long endAt,
+                            @NonNull final CourseRepository.OperationCallback<Map<String, Object>> callback) {
+        root.child(path).orderByChild(field).startAt(startAt).endAt(endAt)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        Map<String, Object> children = new LinkedHashMap<>((int) snapshot.getChildrenCount() * 4 / 3 + 1);
+                        for (DataSnapshot child : snapshot.getChildren()) {
+                            children.put(child.getKey(), child.getValue());
+                        }
+                        callback.onSuccess(children);
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        callback.onError(error.toException());
+                    }
+                });
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public long serverTimeMillis() {
+        return System.currentTimeMillis() + serverTimeOffsetMs;
+    }
+
+    @Override
+    public void keepSynced(@NonNull String path, boolean keepSynced) {
+        root.child(path).keepSynced(keepSynced);
+        Log.d(TAG, "keepSynced: " + path + " -> " + keepSynced);
+    }
+
+    @Override
+    public void update(@NonNull Map<String, Object> values, @NonNull final CourseRepository.OperationCallback<Void> callback) {
+        root.updateChildren(values, (error, ref) -> {
+            if (error == null) {
+                callback.onSuccess(null);
+            } else if (error.getCode() == DatabaseError.PERMISSION_DENIED) {
+                callback.onError(new WriteRejectedException(error.getMessage(), error.toException()));
+            } else {
+                callback.onError(error.toException());
+            }
+        });
+    }
+
+    @Override
+    public void claim(@NonNull String path, @NonNull final String value, @NonNull final CourseRepository.OperationCallback<Boolean> callback) {
+        root.child(path).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Object current = currentData.getValue();
+                if (current == null || value.equals(current)) {
+                    currentData.setValue(value);
+                    return Transaction.success(currentData);
+                }
+                return Transaction.abort();
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                if (error != null) {
+                    callback.onError(error.toException());
+                } else {
+                    callback.onSuccess(committed);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void release(@NonNull String path, @NonNull final String value, @NonNull final CourseRepository.OperationCallback<Boolean> callback) {
+        root.child(path).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Object current = currentData.getValue();
+                if (current != null && !value.equals(current)) {
+                    return Transaction.abort();
+                }
+                currentData.setValue(null);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                if (error != null) {
+                    callback.onError(error.toException());
+                } else {
+                    callback.onSuccess(committed);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void replaceIfOlder(@NonNull String path, @NonNull final String field, final long olderThan,
+                               @NonNull final Map<String, Object> value,
+                               @NonNull final CourseRepository.OperationCallback<Boolean> callback) {
+        root.child(path).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                if (currentData.getValue() != null) {
+                    Object current = currentData.child(field).getValue();
+                    if ((current instanceof Number ? ((Number) current).longValue() : 0L) >= olderThan) {
+                        return Transaction.abort();
+                    }
+                }
+                currentData.setValue(value);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                if (error != null) {
+                    callback.onError(error.toException());
+                } else {
+                    callback.onSuccess(committed);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,640 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process {@link CourseDataSource} for deterministic load and stress testing without
+ * Firebase. It keeps the database as an immutable tree (every write copies the nodes on
+ * its path), so listeners receive snapshots without further copying.
+ *
+ * Every operation completes after a simulated latency drawn from a seeded random source,
+ * in submission order, and can be made to fail at a configurable rate. All callbacks run
+ * on {@code callbackExecutor}, which must be serial; by default that is the data source's
+ * own worker thread. Pure Java, so it runs in JVM unit tests on any machine.
+ */
+public class InMemoryCourseDataSource implements CourseDataSource {
+
+    public static final class Builder {
+        private long minLatencyMs;
+        private long maxLatencyMs;
+        private double failureRate;
+        private long seed = 1L;
+        @Nullable
+        private Executor callbackExecutor;
+
+        @NonNull
+        public Builder latency(long minMs, long maxMs) {
+            if (minMs < 0 || maxMs < minMs) {
+                throw new IllegalArgumentException("Invalid latency range: " + minMs + ".." + maxMs);
+            }
+            this.minLatencyMs = minMs;
+            this.maxLatencyMs = maxMs;
+            return this;
+        }
+
+        /** Probability in [0, 1] that any single read or write fails. */
+        @NonNull
+        public Builder failureRate(double failureRate) {
+            if (failureRate < 0 || failureRate > 1) {
+                throw new IllegalArgumentException("Failure rate must be within [0, 1]: " + failureRate);
+            }
+            this.failureRate = failureRate;
+            return this;
+        }
+
+        @NonNull
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        @NonNull
+        public Builder callbackExecutor(@NonNull Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        @NonNull
+        public InMemoryCourseDataSource build() {
+            return new InMemoryCourseDataSource(this);
+        }
+    }
+
+    private final ScheduledExecutorService worker;
+    private final Executor callbackExecutor;
+    private final Random latencyRandom;
+    private final Random failureRandom;
+    private final PushIds pushIds;
+    private final long minLatencyMs;
+    private final long maxLatencyMs;
+    private volatile double failureRate;
+    private final AtomicInteger forcedFailures = new AtomicInteger();
+    private final AtomicInteger forcedRejections = new AtomicInteger();
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger operationCount = new AtomicInteger();
+
+    // Only touched on the worker thread
+    private Map<String, Object> root = Collections.emptyMap();
+    private long lastDueNanos;
+
+    private InMemoryCourseDataSource(@NonNull Builder builder) {
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "InMemoryCourseDataSource");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.callbackExecutor = builder.callbackExecutor != null ? builder.callbackExecutor : worker;
+        this.latencyRandom = new Random(builder.seed);
+        this.failureRandom = new Random(builder.seed + 1);
+        this.pushIds = new PushIds(new Random(builder.seed + 2));
+        this.minLatencyMs = builder.minLatencyMs;
+        this.maxLatencyMs = builder.maxLatencyMs;
+        this.failureRate = builder.failureRate;
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /** Makes the next {@code count} reads or writes fail regardless of the failure rate. */
+    public void failNextOperations(int count) {
+        forcedFailures.addAndGet(count);
+    }
+
+    /** Rejects the next {@code count} updates as the database rules would deny them, whatever they write. */
+    public void rejectNextUpdates(int count) {
+        forcedRejections.addAndGet(count);
+    }
+
+    /** Number of reads and writes completed or failed so far. */
+    public int getOperationCount() {
+        return operationCount.get();
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    @NonNull
+    @Override
+    public String newKey(@NonNull String path) {
+        return pushIds.next(System.currentTimeMillis());
+    }
+
+    @NonNull
+    @Override
+    public Registration observeChildren(@NonNull String path, @NonNull ChildrenListener listener) {
+        final Observer observer = new Observer(segments(path), listener, null);
+        observers.add(observer);
+        schedule(() -> observer.deliverInitial(root));
+        return () -> {
+            observer.removed = true;
+            observers.remove(observer);
+        };
+    }
+
+    @NonNull
+    @Override
+    public Registration observeChildEvents(@NonNull String path, @NonNull ChildEventListener listener) {
+        final Observer observer = new Observer(segments(path), null, listener);
+        observers.add(observer);
+        schedule(() -> observer.deliverInitial(root));
+        return () -> {
+            observer.removed = true;
+            observers.remove(observer);
+        };
+    }
+
+    @NonNull
+    @Override
+    public Registration observeChildEventsSince(@NonNull String path, @NonNull String field, long startAt,
+                                                @NonNull ChildEventListener listener) {
+        final Observer observer = new Observer(segments(path), null, listener, field, startAt);
+        observers.add(observer);
+        schedule(() -> observer.deliverInitial(root));
+        return () -> {
+            observer.removed = true;
+            observers.remove(observer);
+        };
+    }
+
+    @Override
+    public void read(@NonNull String path, @NonNull CourseRepository.OperationCallback<Object> callback) {
+        final String[] segments = segments(path);
+        schedule(() -> {
+            operationCount.incrementAndGet();
+            if (shouldFail()) {
+                callbackExecutor.execute(() -> callback.onError(new Exception("Simulated read failure at " + path)));
+                return;
+            }
+            final Object value = get(root, segments);
+            callbackExecutor.execute(() -> callback.onSuccess(value));
+        });
+    }
+
+    @Override
+    public void readPage(@NonNull String path, @Nullable String startAfterKey, int limit,
+                         @NonNull CourseRepository.OperationCallback<Map<String, Object>> callback) {
+        final String[] segments = segments(path);
+        schedule(() -> {
+            operationCount.incrementAndGet();
+            if (shouldFail()) {
+                callbackExecutor.execute(() -> callback.onError(new Exception("Simulated read failure at " + path)));
+                return;
+            }
+            // Nodes are TreeMaps, so iteration is already in key order
+            final Map<String, Object> page = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> child : children(get(root, segments)).entrySet()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                if (startAfterKey == null || child.getKey().compareTo(startAfterKey) > 0) {
+                    page.put(child.getKey(), child.getValue());
+                }
+            }
+            callbackExecutor.execute(() -> callback.onSuccess(page));
+        });
+    }
+
+    @Override
+    public void readByChild(@NonNull String path, @NonNull String field, long startAt, long endAt,
+                            @NonNull CourseRepository.OperationCallback<Map<String, Object>> callback) {
+        final String[] segments = segments(path);
+        schedule(() -> {
+            operationCount.incrementAndGet();
+            if (shouldFail()) {
+                callbackExecutor.execute(() -> callback.onError(new Exception("Simulated read failure at " + path)));
+                return;
+            }
+            final Map<String, Object> range = byChild(children(get(root, segments)), field, startAt, endAt);
+            callbackExecutor.execute(() -> callback.onSuccess(range));
+        });
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    @Override
+    public long serverTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void keepSynced(@NonNull String path, boolean keepSynced) {
+        // The whole tree is local already
+    }
+
+    @Override
+    public void update(@NonNull Map<String, Object> values, @NonNull CourseRepository.OperationCallback<Void> callback) {
+        // Normalize on the caller's thread so later mutation of the argument cannot leak in
+        final List<String[]> paths = new ArrayList<>(values.size());
+        final List<Object> normalized = new ArrayList<>(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            paths.add(segments(entry.getKey()));
+            normalized.add(normalize(entry.getValue()));
+        }
+        schedule(() -> {
+            operationCount.incrementAndGet();
+            if (shouldFail()) {
+                callbackExecutor.execute(() -> callback.onError(new Exception("Simulated write failure")));
+                return;
+            }
+            final String rejected = forcedRejections.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0
+                    ? "Simulated permission denied"
+                    : violatedRule(paths, normalized);
+            if (rejected != null) {
+                callbackExecutor.execute(() -> callback.onError(new WriteRejectedException(rejected, null)));
+                return;
+            }
+            Map<String, Object> before = root;
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < paths.size(); i++) {
+                root = set(root, paths.get(i), 0, resolveServerValues(normalized.get(i), now));
+            }
+            for (Observer observer : observers) {
+                observer.onUpdate(before, root, paths);
+            }
+            callbackExecutor.execute(() -> callback.onSuccess(null));
+        });
+    }
+
+    @Override
+    public void claim(@NonNull String path, @NonNull String value, @NonNull CourseRepository.OperationCallback<Boolean> callback) {
+        final String[] segments = segments(path);
+        schedule(() -> {
+            operationCount.incrementAndGet();
+            if (shouldFail()) {
+                callbackExecutor.execute(() -> callback.onError(new Exception("Simulated transaction failure at " + path)));
+                return;
+            }
+            Object current = get(root, segments);
+            if (current != null && !value.equals(current)) {
+                callbackExecutor.execute(() -> callback.onSuccess(false));
+                return;
+            }
+            if (current == null) {
+                Map<String, Object> before = root;
+                root = set(root, segments, 0, value);
+                for (Observer observer : observers) {
+                    observer.onUpdate(before, root, Collections.singletonList(segments));
+                }
+            }
+            callbackExecutor.execute(() -> callback.onSuccess(true));
+        });
+    }
+
+    @Override
+    public void release(@NonNull String path, @NonNull String value, @NonNull CourseRepository.OperationCallback<Boolean> callback) {
+        final String[] segments = segments(path);
+        schedule(() -> {
+            operationCount.incrementAndGet();
+            if (shouldFail()) {
+                callbackExecutor.execute(() -> callback.onError(new Exception("Simulated transaction failure at " + path)));
+                return;
+            }
+            Object current = get(root, segments);
+            if (current != null && !value.equals(current)) {
+                callbackExecutor.execute(() -> callback.onSuccess(false));
+                return;
+            }
+            if (current != null) {
+                Map<String, Object> before = root;
+                root = set(root, segments, 0, null);
+                for (Observer observer : observers) {
+                    observer.onUpdate(before, root, Collections.singletonList(segments));
+                }
+            }
+            callbackExecutor.execute(() -> callback.onSuccess(true));
+        });
+    }
+
+    @Override
+    public void replaceIfOlder(@NonNull String path, @NonNull String field, long olderThan, @NonNull Map<String, Object> value,
+                               @NonNull CourseRepository.OperationCallback<Boolean> callback) {
+        final String[] segments = segments(path);
+        final Object normalized = normalize(value);
+        schedule(() -> {
+            operationCount.incrementAndGet();
+            if (shouldFail()) {
+                callbackExecutor.execute(() -> callback.onError(new Exception("Simulated transaction failure at " + path)));
+                return;
+            }
+            Object current = get(root, segments);
+            if (current != null && fieldValue(current, field) >= olderThan) {
+                callbackExecutor.execute(() -> callback.onSuccess(false));
+                return;
+            }
+            Map<String, Object> before = root;
+            root = set(root, segments, 0, resolveServerValues(normalized, System.currentTimeMillis()));
+            for (Observer observer : observers) {
+                observer.onUpdate(before, root, Collections.singletonList(segments));
+            }
+            callbackExecutor.execute(() -> callback.onSuccess(true));
+        });
+    }
+
+    private static long fieldValue(@NonNull Object node, @NonNull String field) {
+        Object value = node instanceof Map ? ((Map<?, ?>) node).get(field) : null;
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * The database rule on {@code courseCodes/$code} (see the README): an entry may be set
+     * when it is absent, already holds the same course id, or holds a course that no longer
+     * exists. Returns why the update is rejected, or null. Worker thread.
+     */
+    @Nullable
+    private String violatedRule(@NonNull List<String[]> paths, @NonNull List<Object> values) {
+        for (int i = 0; i < paths.size(); i++) {
+            String[] path = paths.get(i);
+            Object value = values.get(i);
+            if (value == null || path.length != 2 || !CourseCodes.INDEX_PATH.equals(path[0])) {
+                continue;
+            }
+            Object holder = get(root, path);
+            if (holder != null && !holder.equals(value)
+                    && get(root, new String[]{CourseRepository.COURSES_PATH, String.valueOf(holder)}) != null) {
+                return "Permission denied: " + CourseCodes.INDEX_PATH + "/" + path[1] + " is held by " + holder;
+            }
+        }
+        return null;
+    }
+
+    private boolean shouldFail() {
+        if (forcedFailures.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+            return true;
+        }
+        return failureRate > 0 && failureRandom.nextDouble() < failureRate;
+    }
+
+    // Operations complete in submission order even when their latencies differ
+    private synchronized void schedule(@NonNull Runnable task) {
+        long latencyMs = minLatencyMs;
+        if (maxLatencyMs > minLatencyMs) {
+            latencyMs += (long) (latencyRandom.nextDouble() * (maxLatencyMs - minLatencyMs));
+        }
+        long now = System.nanoTime();
+        long due = Math.max(now + TimeUnit.MILLISECONDS.toNanos(latencyMs), lastDueNanos);
+        lastDueNanos = due;
+        worker.schedule(task, due - now, TimeUnit.NANOSECONDS);
+    }
+
+    private final class Observer {
+        @NonNull
+        private final String[] path;
+        @Nullable
+        private final ChildrenListener childrenListener;
+        @Nullable
+        private final ChildEventListener childEventListener;
+        // Set for observeChildEventsSince: only children whose field is at least startAt are seen
+        @Nullable
+        private final String field;
+        private final long startAt;
+        private volatile boolean removed;
+        // Writes applied before the initial delivery are already part of it
+        private boolean initialized;
+
+        Observer(@NonNull String[] path,
+                 @Nullable ChildrenListener childrenListener,
+                 @Nullable ChildEventListener childEventListener) {
+            this(path, childrenListener, childEventListener, null, 0L);
+        }
+
+        Observer(@NonNull String[] path,
+                 @Nullable ChildrenListener childrenListener,
+                 @Nullable ChildEventListener childEventListener,
+                 @Nullable String field,
+                 long startAt) {
+            this.path = path;
+            this.childrenListener = childrenListener;
+            this.childEventListener = childEventListener;
+            this.field = field;
+            this.startAt = startAt;
+        }
+
+        @NonNull
+        private Map<String, Object> visibleChildren(@NonNull Map<String, Object> tree) {
+            Map<String, Object> children = children(get(tree, path));
+            return field != null ? byChild(children, field, startAt, Long.MAX_VALUE) : children;
+        }
+
+        void deliverInitial(@NonNull Map<String, Object> tree) {
+            initialized = true;
+            final Map<String, Object> children = visibleChildren(tree);
+            if (childrenListener != null) {
+                deliver(() -> childrenListener.onChildren(children));
+            } else if (childEventListener != null) {
+                for (final Map.Entry<String, Object> child : children.entrySet()) {
+                    deliver(() -> childEventListener.onChildAdded(child.getKey(), child.getValue()));
+                }
+            }
+        }
+
+        void onUpdate(@NonNull Map<String, Object> before, @NonNull Map<String, Object> after, @NonNull List<String[]> written) {
+            if (!initialized) {
+                return;
+            }
+            boolean affected = false;
+            List<String> changedKeys = new ArrayList<>();
+            boolean wholeNode = false;
+            for (String[] target : written) {
+                if (isPrefix(path, target) && target.length > path.length) {
+                    affected = true;
+                    changedKeys.add(target[path.length]);
+                } else if (isPrefix(target, path)) {
+                    affected = true;
+                    wholeNode = true;
+                }
+            }
+            if (!affected) {
+                return;
+            }
+            final Map<String, Object> oldChildren = visibleChildren(before);
+            final Map<String, Object> newChildren = visibleChildren(after);
+            if (childrenListener != null) {
+                if (!oldChildren.equals(newChildren)) {
+                    deliver(() -> childrenListener.onChildren(newChildren));
+                }
+                return;
+            }
+            if (wholeNode) {
+                changedKeys = new ArrayList<>(oldChildren.keySet());
+                for (String key : newChildren.keySet()) {
+                    if (!oldChildren.containsKey(key)) {
+                        changedKeys.add(key);
+                    }
+                }
+            }
+            for (final String key : changedKeys) {
+                final Object oldValue = oldChildren.get(key);
+                final Object newValue = newChildren.get(key);
+                if (oldValue == null && newValue != null) {
+                    deliver(() -> childEventListener.onChildAdded(key, newValue));
+                } else if (oldValue != null && newValue == null) {
+                    deliver(() -> childEventListener.onChildRemoved(key));
+                } else if (oldValue != null && !oldValue.equals(newValue)) {
+                    deliver(() -> childEventListener.onChildChanged(key, newValue));
+                }
+            }
+        }
+
+        private void deliver(@NonNull final Runnable event) {
+            callbackExecutor.execute(() -> {
+                if (!removed) {
+                    event.run();
+                }
+            });
+        }
+    }
+
+    @NonNull
+    private static String[] segments(@NonNull String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    // Children whose numeric field is within [startAt, endAt], ordered by it and then by key
+    @NonNull
+    private static Map<String, Object> byChild(@NonNull Map<String, Object> children, @NonNull final String field,
+                                               long startAt, long endAt) {
+        List<Map.Entry<String, Object>> matches = new ArrayList<>();
+        for (Map.Entry<String, Object> child : children.entrySet()) {
+            Object value = children(child.getValue()).get(field);
+            if (value instanceof Number) {
+                long number = ((Number) value).longValue();
+                if (number >= startAt && number <= endAt) {
+                    matches.add(child);
+                }
+            }
+        }
+        // Stable, so equal values stay in key order
+        Collections.sort(matches, (a, b) -> Long.compare(
+                ((Number) children(a.getValue()).get(field)).longValue(),
+                ((Number) children(b.getValue()).get(field)).longValue()));
+        Map<String, Object> range = new LinkedHashMap<>(matches.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Object> match : matches) {
+            range.put(match.getKey(), match.getValue());
+        }
+        return range;
+    }
+
+    private static boolean isPrefix(@NonNull String[] prefix, @NonNull String[] path) {
+        if (prefix.length > path.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (!prefix[i].equals(path[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private static Object get(@NonNull Map<String, Object> tree, @NonNull String[] path) {
+        Object node = tree;
+        for (String segment : path) {
+            if (!(node instanceof Map)) {
+                return null;
+            }
+            node = ((Map<?, ?>) node).get(segment);
+        }
+        return node;
+    }
+
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> children(@Nullable Object node) {
+        return node instanceof Map ? (Map<String, Object>) node : Collections.<String, Object>emptyMap();
+    }
+
+    // Returns a copy of node with value stored at path[index..]; empty objects disappear as in Firebase
+    @NonNull
+    private static Map<String, Object> set(@NonNull Map<String, Object> node, @NonNull String[] path, int index, @Nullable Object value) {
+        if (index == path.length) {
+            return children(value);
+        }
+        TreeMap<String, Object> copy = new TreeMap<>(node);
+        String key = path[index];
+        Object child;
+        if (index == path.length - 1) {
+            child = value;
+        } else {
+            Map<String, Object> updated = set(children(node.get(key)), path, index + 1, value);
+            child = updated.isEmpty() ? null : updated;
+        }
+        if (child == null) {
+            copy.remove(key);
+        } else {
+            copy.put(key, child);
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    // Replaces SERVER_TIMESTAMP placeholders with the apply time, as the server would
+    @Nullable
+    private static Object resolveServerValues(@Nullable Object value, long now) {
+        if (!(value instanceof Map)) {
+            return value;
+        }
+        if (SERVER_TIMESTAMP.equals(value)) {
+            return now;
+        }
+        Map<String, Object> node = children(value);
+        TreeMap<String, Object> copy = null;
+        for (Map.Entry<String, Object> entry : node.entrySet()) {
+            Object resolved = resolveServerValues(entry.getValue(), now);
+            if (resolved != entry.getValue()) {
+                if (copy == null) {
+                    copy = new TreeMap<>(node);
+                }
+                copy.put(entry.getKey(), resolved);
+            }
+        }
+        return copy != null ? Collections.unmodifiableMap(copy) : value;
+    }
+
+    // Stores values the way Firebase returns them: Long for whole numbers, Double otherwise, immutable maps
+    @Nullable
+    private static Object normalize(@Nullable Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        if (value instanceof Map) {
+            TreeMap<String, Object> copy = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                Object child = normalize(entry.getValue());
+                if (child != null) {
+                    copy.put(String.valueOf(entry.getKey()), child);
+                }
+            }
+            return copy.isEmpty() ? null : Collections.unmodifiableMap(copy);
+        }
+        return value;
+    }
+}
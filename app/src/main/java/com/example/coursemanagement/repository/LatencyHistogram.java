@@ -0,0 +1,96 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free duration histogram with power-of-two microsecond buckets (bucket i holds
+ * durations below 2^i µs). Percentiles are reported as the upper bound of their bucket,
+ * so they are accurate to within a factor of two, which is enough to spot regressions.
+ */
+final class LatencyHistogram {
+
+    // 2^26 µs is about 67 s; anything slower lands in the last bucket
+    private static final int BUCKETS = 27;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        long max;
+        while (micros > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, micros)) {
+            // Retry until this sample is stored or a larger one wins
+        }
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    long getMeanMicros() {
+        long n = count.get();
+        return n == 0 ? 0 : totalMicros.get() / n;
+    }
+
+    /** Upper bound in microseconds of the bucket holding the given percentile (0-100). */
+    long getPercentileMicros(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(1L << i, maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    @NonNull
+    String format() {
+        if (getCount() == 0) {
+            return "n=0";
+        }
+        return String.format(Locale.ROOT, "n=%d mean=%s p50=%s p90=%s p99=%s max=%s",
+                getCount(), formatMicros(getMeanMicros()), formatMicros(getPercentileMicros(50)),
+                formatMicros(getPercentileMicros(90)), formatMicros(getPercentileMicros(99)),
+                formatMicros(getMaxMicros()));
+    }
+
+    @NonNull
+    static String formatMicros(long micros) {
+        if (micros < 1000) {
+            return micros + "us";
+        }
+        if (micros < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1fms", micros / 1000.0);
+        }
+        return String.format(Locale.ROOT, "%.2fs", micros / 1_000_000.0);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.Random;
+
+/**
+ * Firebase-compatible push IDs: 8 characters of millisecond timestamp followed by 12
+ * random characters, incremented instead of re-randomized within the same millisecond,
+ * so keys sort lexicographically in creation order.
+ */
+final class PushIds {
+
+    private static final String PUSH_CHARS = "-0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ_abcdefghijklmnopqrstuvwxyz";
+
+    private final Random random;
+    private final int[] lastRandChars = new int[12];
+    private long lastPushTime;
+
+    PushIds(@NonNull Random random) {
+        this.random = random;
+    }
+
+    @NonNull
+    synchronized String next(long now) {
+        boolean duplicateTime = now == lastPushTime;
+        lastPushTime = now;
+
+        char[] timeStampChars = new char[8];
+        for (int i = 7; i >= 0; i--) {
+            timeStampChars[i] = PUSH_CHARS.charAt((int) (now % 64));
+            now = now / 64;
+        }
+
+        StringBuilder id = new StringBuilder(20).append(timeStampChars);
+        if (!duplicateTime) {
+            for (int i = 0; i < 12; i++) {
+                lastRandChars[i] = random.nextInt(64);
+            }
+        } else {
+            int i;
+            for (i = 11; i >= 0 && lastRandChars[i] == 63; i--) {
+                lastRandChars[i] = 0;
+            }
+            if (i >= 0) {
+                lastRandChars[i]++;
+            }
+        }
+        for (int i = 0; i < 12; i++) {
+            id.append(PUSH_CHARS.charAt(lastRandChars[i]));
+        }
+        return id.toString();
+    }
+}
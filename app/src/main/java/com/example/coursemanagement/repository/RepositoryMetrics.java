@@ -0,0 +1,287 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process counters for {@link CourseRepository}: per-operation latency, snapshot sizes,
+ * decode and sort time for the course list, and live listener counts. Recording is
+ * lock-free and cheap enough to stay on in release builds; read it through
+ * {@link #dump(PrintWriter)} ({@code adb shell dumpsys activity
+ * com.example.coursemanagement/.MainActivity}) or the debug metrics screen.
+ */
+public final class RepositoryMetrics {
+
+    public enum Operation {
+        ADD("addCourse"),
+        UPDATE("updateCourse"),
+        DELETE("deleteCourse"),
+        DELETE_BATCH("deleteCourses"),
+        GET_BY_ID("getCourseById"),
+        SYNC("syncCourseStore"),
+        COMPACT("compactTombstones");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        @NonNull
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public enum ListenerKind {
+        COURSES("observeAllCourses"),
+        SUMMARY("observeCatalogSummary");
+
+        private final String label;
+
+        ListenerKind(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> failures = new EnumMap<>(Operation.class);
+    private final Map<ListenerKind, AtomicInteger> activeListeners = new EnumMap<>(ListenerKind.class);
+    private final Map<ListenerKind, AtomicLong> registeredListeners = new EnumMap<>(ListenerKind.class);
+
+    private final LatencyHistogram decodeTimes = new LatencyHistogram();
+    private final LatencyHistogram sortTimes = new LatencyHistogram();
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicInteger lastSnapshotChildren = new AtomicInteger();
+    private final AtomicInteger maxSnapshotChildren = new AtomicInteger();
+    private final AtomicLong lastSnapshotBytes = new AtomicLong();
+    private final AtomicLong maxSnapshotBytes = new AtomicLong();
+    private final AtomicLong skippedChildren = new AtomicLong();
+    private final AtomicLong listEmissions = new AtomicLong();
+    private final AtomicLong collapsedListEmissions = new AtomicLong();
+    private final AtomicLong courseCacheHits = new AtomicLong();
+    private final AtomicLong courseCacheMisses = new AtomicLong();
+    private final AtomicLong coalescedReads = new AtomicLong();
+    private final LatencyHistogram firstRenderTimes = new LatencyHistogram();
+    private final AtomicLong firstRenderHits = new AtomicLong();
+    private final AtomicLong firstRenderMisses = new AtomicLong();
+
+    RepositoryMetrics() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            failures.put(operation, new AtomicLong());
+        }
+        for (ListenerKind kind : ListenerKind.values()) {
+            activeListeners.put(kind, new AtomicInteger());
+            registeredListeners.put(kind, new AtomicLong());
+        }
+    }
+
+    /** Wraps a callback so its latency and outcome are recorded when it completes. */
+    @NonNull
+    <T> CourseRepository.OperationCallback<T> timed(@NonNull final Operation operation,
+                                                    @NonNull final CourseRepository.OperationCallback<T> callback) {
+        final long start = System.nanoTime();
+        return new CourseRepository.OperationCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                latencies.get(operation).record(System.nanoTime() - start);
+                callback.onSuccess(result);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                latencies.get(operation).record(System.nanoTime() - start);
+                failures.get(operation).incrementAndGet();
+                callback.onError(e);
+            }
+        };
+    }
+
+    /** Counts the listener as live until the returned registration is removed. */
+    @NonNull
+    CourseDataSource.Registration track(@NonNull final ListenerKind kind,
+                                        @NonNull final CourseDataSource.Registration registration) {
+        activeListeners.get(kind).incrementAndGet();
+        registeredListeners.get(kind).incrementAndGet();
+        final AtomicBoolean removed = new AtomicBoolean();
+        return () -> {
+            if (removed.compareAndSet(false, true)) {
+                activeListeners.get(kind).decrementAndGet();
+            }
+            registration.remove();
+        };
+    }
+
+    void recordSnapshot(int children, long estimatedBytes, int skipped) {
+        snapshots.incrementAndGet();
+        lastSnapshotChildren.set(children);
+        lastSnapshotBytes.set(estimatedBytes);
+        skippedChildren.addAndGet(skipped);
+        int maxChildren;
+        while (children > (maxChildren = maxSnapshotChildren.get())
+                && !maxSnapshotChildren.compareAndSet(maxChildren, children)) {
+            // Retry until stored or a larger snapshot wins
+        }
+        long maxBytes;
+        while (estimatedBytes > (maxBytes = maxSnapshotBytes.get())
+                && !maxSnapshotBytes.compareAndSet(maxBytes, estimatedBytes)) {
+            // Retry until stored or a larger snapshot wins
+        }
+    }
+
+    /**
+     * Time from subscribing to the first course list, and whether it arrived before the
+     * backend connected, so it can only have come from the local cache. A cached list
+     * raised while already connected counts as a miss; hits are a lower bound.
+     */
+    void recordFirstRender(long nanos, boolean beforeConnected) {
+        firstRenderTimes.record(nanos);
+        if (beforeConnected) {
+            firstRenderHits.incrementAndGet();
+        } else {
+            firstRenderMisses.incrementAndGet();
+        }
+    }
+
+    public long getFirstRenderHits() {
+        return firstRenderHits.get();
+    }
+
+    public long getFirstRenderMisses() {
+        return firstRenderMisses.get();
+    }
+
+    /** A list reaching the per-frame delivery to the UI; collapsed if it replaced one not yet delivered. */
+    void recordListEmission(boolean collapsed) {
+        listEmissions.incrementAndGet();
+        if (collapsed) {
+            collapsedListEmissions.incrementAndGet();
+        }
+    }
+
+    public long getCollapsedListEmissions() {
+        return collapsedListEmissions.get();
+    }
+
+    void recordCourseCacheLookup(boolean hit) {
+        (hit ? courseCacheHits : courseCacheMisses).incrementAndGet();
+    }
+
+    /** A getCourseById miss that joined a read already in flight for the same id. */
+    void recordCoalescedRead() {
+        coalescedReads.incrementAndGet();
+    }
+
+    public long getCoalescedReads() {
+        return coalescedReads.get();
+    }
+
+    void recordDecode(long nanos) {
+        decodeTimes.record(nanos);
+    }
+
+    void recordSort(long nanos) {
+        sortTimes.record(nanos);
+    }
+
+    public int getActiveListeners(@NonNull ListenerKind kind) {
+        return activeListeners.get(kind).get();
+    }
+
+    public long getOperationCount(@NonNull Operation operation) {
+        return latencies.get(operation).getCount();
+    }
+
+    public long getFailureCount(@NonNull Operation operation) {
+        return failures.get(operation).get();
+    }
+
+    /** Clears histograms and snapshot counters; live listener counts are kept. */
+    public void reset() {
+        for (Operation operation : Operation.values()) {
+            latencies.get(operation).reset();
+            failures.get(operation).set(0);
+        }
+        decodeTimes.reset();
+        sortTimes.reset();
+        snapshots.set(0);
+        lastSnapshotChildren.set(0);
+        maxSnapshotChildren.set(0);
+        lastSnapshotBytes.set(0);
+        maxSnapshotBytes.set(0);
+        skippedChildren.set(0);
+        listEmissions.set(0);
+        collapsedListEmissions.set(0);
+        courseCacheHits.set(0);
+        courseCacheMisses.set(0);
+        coalescedReads.set(0);
+        firstRenderTimes.reset();
+        firstRenderHits.set(0);
+        firstRenderMisses.set(0);
+    }
+
+    public void dump(@NonNull PrintWriter writer) {
+        writer.println("Repository operations:");
+        for (Operation operation : Operation.values()) {
+            writer.println("  " + operation.label + ": " + latencies.get(operation).format()
+                    + " failures=" + failures.get(operation).get());
+        }
+        writer.println("getCourseById cache: hits=" + courseCacheHits.get() + " misses=" + courseCacheMisses.get()
+                + " coalesced=" + coalescedReads.get());
+        writer.println("Course snapshots: " + snapshots.get()
+                + " (last " + lastSnapshotChildren.get() + " children ~" + formatBytes(lastSnapshotBytes.get())
+                + ", max " + maxSnapshotChildren.get() + " children ~" + formatBytes(maxSnapshotBytes.get())
+                + ", unparseable " + skippedChildren.get() + ")");
+        writer.println("  first list: cache hits=" + firstRenderHits.get() + " misses=" + firstRenderMisses.get()
+                + " " + firstRenderTimes.format());
+        writer.println("  conflated to UI: received=" + listEmissions.get() + " collapsed=" + collapsedListEmissions.get());
+        writer.println("  decode: " + decodeTimes.format());
+        writer.println("  sort: " + sortTimes.format());
+        writer.println("Listeners:");
+        for (ListenerKind kind : ListenerKind.values()) {
+            writer.println("  " + kind.label + ": active=" + activeListeners.get(kind).get()
+                    + " registered=" + registeredListeners.get(kind).get());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Rough JSON size of a raw database value: string lengths plus a few bytes per field for
+     * quotes and separators. Used only to watch snapshot growth, not to match the wire size.
+     */
+    static long estimateBytes(Object value) {
+        if (value instanceof Map) {
+            long bytes = 2;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                bytes += String.valueOf(entry.getKey()).length() + 4 + estimateBytes(entry.getValue());
+            }
+            return bytes;
+        }
+        if (value instanceof String) {
+            return ((String) value).length() + 2;
+        }
+        if (value instanceof Number) {
+            return 8;
+        }
+        return value == null ? 4 : String.valueOf(value).length();
+    }
+
+    @NonNull
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + "B";
+        }
+        if (bytes < 1024 * 1024) {
+            return (bytes / 1024) + "KB";
+        }
+        return String.format(Locale.ROOT, "%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller performs the load and
+ * every caller that joins before it finishes receives the same result.
+ */
+final class SingleFlight<T> {
+
+    private final Map<String, List<CourseRepository.OperationCallback<T>>> waiting = new HashMap<>();
+
+    /** Returns true if the caller must start the load, false if it joined one in flight. */
+    synchronized boolean join(@NonNull String key, @NonNull CourseRepository.OperationCallback<T> callback) {
+        List<CourseRepository.OperationCallback<T>> callbacks = waiting.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return false;
+        }
+        callbacks = new ArrayList<>(2);
+        callbacks.add(callback);
+        waiting.put(key, callbacks);
+        return true;
+    }
+
+    void complete(@NonNull String key, T result) {
+        for (CourseRepository.OperationCallback<T> callback : drain(key)) {
+            callback.onSuccess(result);
+        }
+    }
+
+    void fail(@NonNull String key, @NonNull Exception e) {
+        for (CourseRepository.OperationCallback<T> callback : drain(key)) {
+            callback.onError(e);
+        }
+    }
+
+    @NonNull
+    private synchronized List<CourseRepository.OperationCallback<T>> drain(@NonNull String key) {
+        List<CourseRepository.OperationCallback<T>> callbacks = waiting.remove(key);
+        return callbacks != null ? callbacks : new ArrayList<CourseRepository.OperationCallback<T>>();
+    }
+}
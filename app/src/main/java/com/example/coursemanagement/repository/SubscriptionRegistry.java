@@ -0,0 +1,299 @@
+package com.example.coursemanagement.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.io.PrintWriter;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live database subscriptions opened through {@link CourseRepository}, each with the stack
+ * trace of the call that opened it. Subscriptions bound to a {@link LifecycleOwner} are
+ * removed when the owner is destroyed.
+ *
+ * <p>With leak detection on (debug builds), a subscription whose owner is destroyed or
+ * garbage collected while it is still live is logged as a leak, and a second live
+ * subscription opened from the same call site for the same owner is logged as a duplicate.
+ * Subscriptions without an owner are leaked once the handle returned for them is garbage
+ * collected while they are live, since nothing can remove them any more.
+ */
+public final class SubscriptionRegistry {
+
+    private static final String TAG = "SubscriptionRegistry";
+
+    private static final class Entry {
+        final long id;
+        final RepositoryMetrics.ListenerKind kind;
+        @Nullable
+        final WeakReference<LifecycleOwner> owner;
+        final String ownerName;
+        final String callSite;
+        final Throwable creation;
+        final long createdAtMillis;
+        // Set once the handle is collected while live; guarded by the registry
+        boolean orphaned;
+        // Logged as leaked already; guarded by the registry
+        boolean reported;
+
+        Entry(long id, RepositoryMetrics.ListenerKind kind, @Nullable LifecycleOwner owner, Throwable creation) {
+            this.id = id;
+            this.kind = kind;
+            this.owner = owner != null ? new WeakReference<>(owner) : null;
+            this.ownerName = owner != null
+                    ? owner.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(owner))
+                    : "unowned";
+            this.callSite = callSite(creation);
+            this.creation = creation;
+            this.createdAtMillis = System.currentTimeMillis();
+        }
+
+        boolean isLeaked() {
+            if (orphaned || owner == null) {
+                return orphaned;
+            }
+            LifecycleOwner current = owner.get();
+            return current == null || current.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED;
+        }
+
+        @NonNull
+        String describe() {
+            long ageSeconds = (System.currentTimeMillis() - createdAtMillis) / 1000;
+            return "#" + id + " " + kind + " owner=" + ownerName + " at " + callSite + " age=" + ageSeconds + "s";
+        }
+    }
+
+    /** Weakly reachable handle, enqueued once the caller has dropped it. */
+    private static final class HandleReference extends WeakReference<Handle> {
+        final long id;
+
+        HandleReference(Handle handle, ReferenceQueue<Handle> queue) {
+            super(handle, queue);
+            this.id = handle.id;
+        }
+    }
+
+    private final Map<Long, Entry> live = new LinkedHashMap<>();
+    private final ReferenceQueue<Handle> collectedHandles = new ReferenceQueue<>();
+    // Keeps the references themselves reachable until they are enqueued; guarded by this
+    private final Map<Long, HandleReference> handleReferences = new HashMap<>();
+    private long nextId = 1;
+    private volatile boolean leakDetection;
+    @Nullable
+    private Handler mainHandler;
+
+    SubscriptionRegistry() {
+    }
+
+    /** Turns the leak and duplicate checks on; meant for debug builds. */
+    public void setLeakDetectionEnabled(boolean enabled) {
+        leakDetection = enabled;
+    }
+
+    /**
+     * Records a subscription. When an owner is given, it must be called on the main thread
+     * and the subscription is removed when the owner reaches {@code ON_DESTROY}.
+     */
+    @NonNull
+    CourseDataSource.Registration register(@NonNull RepositoryMetrics.ListenerKind kind,
+                                           @Nullable LifecycleOwner owner,
+                                           @NonNull CourseDataSource.Registration registration) {
+        Entry entry;
+        synchronized (this) {
+            entry = new Entry(nextId++, kind, owner, new Throwable("Subscription created here"));
+            live.put(entry.id, entry);
+        }
+        if (leakDetection) {
+            reportDuplicates(entry);
+        }
+
+        final Handle handle = new Handle(entry.id, registration);
+        if (owner != null) {
+            owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+                @Override
+                public void onDestroy(@NonNull LifecycleOwner source) {
+                    handle.remove();
+                    if (leakDetection) {
+                        // Other subscriptions of this owner are removed by ON_DESTROY observers
+                        // and onDestroy callbacks still to run; scan once they all have
+                        mainHandler().post(SubscriptionRegistry.this::reportLeaks);
+                    }
+                }
+            });
+        } else {
+            synchronized (this) {
+                handleReferences.put(entry.id, new HandleReference(handle, collectedHandles));
+            }
+        }
+        if (leakDetection) {
+            reportLeaks();
+        }
+        return handle;
+    }
+
+    @NonNull
+    private synchronized Handler mainHandler() {
+        if (mainHandler == null) {
+            mainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mainHandler;
+    }
+
+    // Marks live entries whose unowned handle has been garbage collected; callers hold the lock
+    private void pollCollectedHandles() {
+        Reference<? extends Handle> collected;
+        while ((collected = collectedHandles.poll()) != null) {
+            long id = ((HandleReference) collected).id;
+            handleReferences.remove(id);
+            Entry entry = live.get(id);
+            if (entry != null) {
+                entry.orphaned = true;
+            }
+        }
+    }
+
+    private final class Handle implements CourseDataSource.Registration {
+        private final long id;
+        private final CourseDataSource.Registration registration;
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        Handle(long id, CourseDataSource.Registration registration) {
+            this.id = id;
+            this.registration = registration;
+        }
+
+        @Override
+        public void remove() {
+            if (!removed.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (SubscriptionRegistry.this) {
+                live.remove(id);
+                handleReferences.remove(id);
+            }
+            registration.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return live.size();
+    }
+
+    /**
+     * Live subscriptions whose owner is destroyed or already garbage collected, and unowned
+     * ones whose handle was dropped without removing them.
+     */
+    @NonNull
+    public synchronized List<String> findLeaks() {
+        pollCollectedHandles();
+        List<String> leaks = new ArrayList<>();
+        for (Entry entry : live.values()) {
+            if (entry.isLeaked()) {
+                leaks.add(entry.describe());
+            }
+        }
+        return leaks;
+    }
+
+    /** Groups of two or more live subscriptions opened from the same call site for the same owner. */
+    @NonNull
+    public synchronized List<String> findDuplicates() {
+        Map<String, List<Entry>> groups = new HashMap<>();
+        for (Entry entry : live.values()) {
+            String key = entry.kind + "|" + entry.callSite + "|" + entry.ownerName;
+            List<Entry> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+            }
+            group.add(entry);
+        }
+        List<String> duplicates = new ArrayList<>();
+        for (List<Entry> group : groups.values()) {
+            if (group.size() > 1) {
+                duplicates.add(group.size() + "x " + group.get(0).kind + " owner=" + group.get(0).ownerName
+                        + " at " + group.get(0).callSite);
+            }
+        }
+        return duplicates;
+    }
+
+    private void reportDuplicates(@NonNull Entry entry) {
+        List<Entry> matches = new ArrayList<>();
+        synchronized (this) {
+            for (Entry other : live.values()) {
+                if (other.id != entry.id && other.kind == entry.kind
+                        && other.callSite.equals(entry.callSite) && other.ownerName.equals(entry.ownerName)) {
+                    matches.add(other);
+                }
+            }
+        }
+        for (Entry other : matches) {
+            Log.w(TAG, "Duplicate subscription " + entry.describe() + "; already live: " + other.describe(), other.creation);
+        }
+    }
+
+    // Logs each leak once
+    private void reportLeaks() {
+        List<Entry> leaked = new ArrayList<>();
+        synchronized (this) {
+            pollCollectedHandles();
+            for (Entry entry : live.values()) {
+                if (!entry.reported && entry.isLeaked()) {
+                    entry.reported = true;
+                    leaked.add(entry);
+                }
+            }
+        }
+        for (Entry entry : leaked) {
+            Log.w(TAG, "Leaked subscription " + entry.describe(), entry.creation);
+        }
+    }
+
+    public void dump(@NonNull PrintWriter writer) {
+        List<String> lines = new ArrayList<>();
+        synchronized (this) {
+            pollCollectedHandles();
+            for (Entry entry : live.values()) {
+                lines.add(entry.describe() + (entry.isLeaked() ? " LEAKED" : ""));
+            }
+        }
+        writer.println("Live subscriptions: " + lines.size());
+        for (String line : lines) {
+            writer.println("  " + line);
+        }
+        for (String duplicate : findDuplicates()) {
+            writer.println("  duplicate: " + duplicate);
+        }
+        writer.flush();
+    }
+
+    // First frame outside the repository package, i.e. the caller that opened the subscription
+    @NonNull
+    private static String callSite(@NonNull Throwable creation) {
+        String repositoryPackage = SubscriptionRegistry.class.getPackage() != null
+                ? SubscriptionRegistry.class.getPackage().getName() + "." : "";
+        for (StackTraceElement frame : creation.getStackTrace()) {
+            String className = frame.getClassName();
+            if (!className.startsWith(repositoryPackage) || className.indexOf('.', repositoryPackage.length()) >= 0) {
+                return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName()
+                        + ":" + frame.getLineNumber();
+            }
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.coursemanagement.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.coursemanagement.model.Course;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds the nodes derived from the full {@code courses} records, namely the list
+ * summaries under {@code courseSummaries} and the {@code courseCodes} index, one page of
+ * courses at a time so no single read grows with the catalog. Each summary is written in a
+ * transaction only when it is missing or older than the record it is copied from, so an
+ * edit made by another client after a page was read, or a second client running the
+ * migration at once, is never overwritten with stale page data. A course deleted between
+ * a page read and its write would come back as a summary, so each page is re-read after
+ * the write and the copies of courses that are gone are removed again; deletes remove the
+ * record in the same update that leaves the tombstone, so a missing record covers both.
+ * Codes are then claimed for the courses still present. A finished run leaves a marker at
+ * {@link #MARKER_PATH}, and {@link #runIfNeeded} does nothing once the marker is there, so
+ * each database is backfilled once on its own.
+ */
+public final class SummaryMigration {
+
+    private static final String TAG = "SummaryMigration";
+
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    // Server time of the last finished run
+    static final String MARKER_PATH = "migrations/courseSummaries";
+
+    public interface Listener {
+        void onProgress(int copied);
+        void onComplete(int copied, int skipped);
+        void onError(@NonNull Exception e);
+    }
+
+    private final CourseDataSource dataSource;
+    private final int batchSize;
+
+    public SummaryMigration(@NonNull CourseDataSource dataSource, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    public void run(@NonNull Listener listener) {
+        Log.i(TAG, "run: Copying " + CourseRepository.COURSES_PATH + " into " + CourseRepository.SUMMARIES_PATH
+                + " and " + CourseCodes.INDEX_PATH + " in batches of " + batchSize);
+        copyPage(null, 0, 0, listener);
+    }
+
+    /** Runs unless a previous run on this database has finished; then completes with nothing copied. */
+    public void runIfNeeded(@NonNull final Listener listener) {
+        dataSource.read(MARKER_PATH, new CourseRepository.OperationCallback<Object>() {
+            @Override
+            public void onSuccess(Object marker) {
+                if (marker != null) {
+                    Log.d(TAG, "runIfNeeded: Already migrated at " + marker);
+                    listener.onComplete(0, 0);
+                    return;
+                }
+                run(listener);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "runIfNeeded: Failed to read " + MARKER_PATH, e);
+                listener.onError(e);
+            }
+        });
+    }
+
+    private void copyPage(@Nullable final String startAfterKey, final int copied, final int skipped, @NonNull final Listener listener) {
+        dataSource.readPage(CourseRepository.COURSES_PATH, startAfterKey, batchSize, new CourseRepository.OperationCallback<Map<String, Object>>() {
+            @Override
+            public void onSuccess(Map<String, Object> page) {
+                if (page.isEmpty()) {
+                    markDone(copied, skipped, listener);
+                    return;
+                }
+
+                final List<Course> courses = new ArrayList<>(page.size());
+                final Map<String, Long> recordUpdatedAt = new HashMap<>(page.size() * 4 / 3 + 1);
+                String lastKey = null;
+                int unparseable = 0;
+                for (Map.Entry<String, Object> child : page.entrySet()) {
+                    lastKey = child.getKey();
+                    Course course = CourseMapper.fromValue(child.getKey(), child.getValue());
+                    if (course == null) {
+                        Log.w(TAG, "copyPage: Skipping unparseable course " + child.getKey());
+                        unparseable++;
+                        continue;
+                    }
+                    courses.add(course);
+                    recordUpdatedAt.put(course.getId(), CourseMapper.updatedAt(child.getValue()));
+                }
+
+                final String nextStart = lastKey;
+                final int nextSkipped = skipped + unparseable;
+                writeSummaries(courses, recordUpdatedAt, new CourseRepository.OperationCallback<Set<String>>() {
+                    @Override
+                    public void onSuccess(final Set<String> written) {
+                        removeDeleted(startAfterKey, courses, new CourseRepository.OperationCallback<List<Course>>() {
+                            @Override
+                            public void onSuccess(final List<Course> present) {
+                                claimCodes(present, new CourseRepository.OperationCallback<Void>() {
+                                    @Override
+                                    public void onSuccess(Void result) {
+                                        int nextCopied = copied;
+                                        for (Course course : present) {
+                                            if (written.contains(course.getId())) {
+                                                nextCopied++;
+                                            }
+                                        }
+                                        listener.onProgress(nextCopied);
+                                        copyPage(nextStart, nextCopied, nextSkipped, listener);
+                                    }
+
+                                    @Override
+                                    public void onError(@NonNull Exception e) {
+                                        Log.e(TAG, "copyPage: Failed to claim codes after " + copied + " courses", e);
+                                        listener.onError(e);
+                                    }
+                                });
+                            }
+
+                            @Override
+                            public void onError(@NonNull Exception e) {
+                                Log.e(TAG, "copyPage: Failed to re-check batch after " + copied + " courses", e);
+                                listener.onError(e);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        Log.e(TAG, "copyPage: Failed to write batch after " + copied + " courses", e);
+                        listener.onError(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "copyPage: Failed to read batch after " + copied + " courses", e);
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Writes the summary of each course unless the summary on the server is at least as new
+     * as the record it was copied from, each in its own transaction. A client that edits or
+     * adds a course after the page was read writes its summary with a newer
+     * {@code updatedAt}, so it is never overwritten with page data; the same holds for
+     * another client running this migration at the same time. The callback receives the ids
+     * whose summaries were written.
+     */
+    private void writeSummaries(@NonNull List<Course> courses, @NonNull Map<String, Long> recordUpdatedAt,
+                                @NonNull final CourseRepository.OperationCallback<Set<String>> callback) {
+        final Set<String> written = Collections.synchronizedSet(new HashSet<String>());
+        if (courses.isEmpty()) {
+            callback.onSuccess(written);
+            return;
+        }
+        final AtomicInteger remaining = new AtomicInteger(courses.size());
+        final AtomicBoolean failed = new AtomicBoolean();
+        for (final Course course : courses) {
+            Map<String, Object> summary = CourseMapper.toSummaryValue(course);
+            // So delta readers pick up the copied summaries
+            summary.put(CourseMapper.FIELD_UPDATED_AT, CourseDataSource.SERVER_TIMESTAMP);
+            dataSource.replaceIfOlder(CourseRepository.SUMMARIES_PATH + "/" + course.getId(), CourseMapper.FIELD_UPDATED_AT,
+                    // 0 for a legacy record without updatedAt, so only a missing summary is written
+                    recordUpdatedAt.get(course.getId()), summary,
+                    new CourseRepository.OperationCallback<Boolean>() {
+                        @Override
+                        public void onSuccess(Boolean replaced) {
+                            if (Boolean.TRUE.equals(replaced)) {
+                                written.add(course.getId());
+                            } else {
+                                Log.d(TAG, "writeSummaries: Summary of " + course.getId() + " is newer than the copy, left in place");
+                            }
+                            if (remaining.decrementAndGet() == 0 && !failed.get()) {
+                                callback.onSuccess(written);
+                            }
+                        }
+
+                        @Override
+                        public void onError(@NonNull Exception e) {
+                            if (failed.compareAndSet(false, true)) {
+                                callback.onError(e);
+                            }
+                        }
+                    });
+        }
+    }
+
+    private void markDone(final int copied, final int skipped, @NonNull final Listener listener) {
+        dataSource.update(Collections.<String, Object>singletonMap(MARKER_PATH, CourseDataSource.SERVER_TIMESTAMP),
+                new CourseRepository.OperationCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        Log.i(TAG, "run: Done, copied " + copied + ", skipped " + skipped);
+                        listener.onComplete(copied, skipped);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        Log.e(TAG, "markDone: Failed to write " + MARKER_PATH, e);
+                        listener.onError(e);
+                    }
+                });
+    }
+
+    /**
+     * Re-reads the page just copied and removes the summary of every course
+     * whose record is gone; the callback receives the courses still present. A course can
+     * also drop out of the re-read because new courses pushed it past the page end, so each
+     * missing one is read on its own before it counts as deleted.
+     */
+    private void removeDeleted(@Nullable String startAfterKey, @NonNull final List<Course> courses,
+                               @NonNull final CourseRepository.OperationCallback<List<Course>> callback) {
+        dataSource.readPage(CourseRepository.COURSES_PATH, startAfterKey, batchSize, new CourseRepository.OperationCallback<Map<String, Object>>() {
+            @Override
+            public void onSuccess(Map<String, Object> page) {
+                List<Course> missing = new ArrayList<>();
+                for (Course course : courses) {
+                    if (!page.containsKey(course.getId())) {
+                        missing.add(course);
+                    }
+                }
+                if (missing.isEmpty()) {
+                    callback.onSuccess(courses);
+                    return;
+                }
+                confirmDeleted(missing, 0, new HashMap<String, Object>(), courses, callback);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    private void confirmDeleted(@NonNull final List<Course> missing, final int index, @NonNull final Map<String, Object> removals,
+                                @NonNull final List<Course> courses, @NonNull final CourseRepository.OperationCallback<List<Course>> callback) {
+        if (index == missing.size()) {
+            if (removals.isEmpty()) {
+                callback.onSuccess(courses);
+                return;
+            }
+            dataSource.update(removals, new CourseRepository.OperationCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    List<Course> present = new ArrayList<>(courses.size());
+                    for (Course course : courses) {
+                        if (!removals.containsKey(CourseRepository.SUMMARIES_PATH + "/" + course.getId())) {
+                            present.add(course);
+                        }
+                    }
+                    callback.onSuccess(present);
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    callback.onError(e);
+                }
+            });
+            return;
+        }
+        final Course course = missing.get(index);
+        dataSource.read(CourseRepository.COURSES_PATH + "/" + course.getId(), new CourseRepository.OperationCallback<Object>() {
+            @Override
+            public void onSuccess(Object value) {
+                if (value == null) {
+                    Log.i(TAG, "confirmDeleted: " + course.getId() + " was deleted during the copy, removing its summary");
+                    removals.put(CourseRepository.SUMMARIES_PATH + "/" + course.getId(), null);
+                }
+                confirmDeleted(missing, index + 1, removals, courses, callback);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Claims each course's code in the index. A code already held by another course is
+     * logged and left alone: the catalog predates the index and holds a duplicate.
+     */
+    private void claimCodes(@NonNull List<Course> courses, @NonNull final CourseRepository.OperationCallback<Void> callback) {
+        if (courses.isEmpty()) {
+            callback.onSuccess(null);
+            return;
+        }
+        final AtomicInteger remaining = new AtomicInteger(courses.size());
+        final AtomicBoolean failed = new AtomicBoolean();
+        for (final Course course : courses) {
+            final String codePath = CourseCodes.indexPath(course.getCourseCode());
+            dataSource.claim(codePath, course.getId(), new CourseRepository.OperationCallback<Boolean>() {
+                @Override
+                public void onSuccess(Boolean claimed) {
+                    if (!Boolean.TRUE.equals(claimed)) {
+                        Log.w(TAG, "claimCodes: " + codePath + " is held by another course, not claimed for " + course.getId());
+                    }
+                    if (remaining.decrementAndGet() == 0 && !failed.get()) {
+                        callback.onSuccess(null);
+                    }
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    if (failed.compareAndSet(false, true)) {
+                        callback.onError(e);
+                    }
+                }
+            });
+        }
+    }
+}
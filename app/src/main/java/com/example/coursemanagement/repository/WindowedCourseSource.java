@@ -0,0 +1,341 @@
+package com.example.coursemanagement.repository;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.coursemanagement.model.Course;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The course list for catalogs larger than {@link CourseWindowBudget#getMaxInMemoryCourses()}.
+ * The list is read from {@link CourseDiskStore}, which {@link CourseSync} brings up to date
+ * on start; after that, child events for summaries written since the store's mark are
+ * written to it in batches. Only a window of rows around the visible range is held in
+ * memory; positions outside it read as null until the window moves there. Catalog totals
+ * are added up by the store too, so no listener has to stream every summary. Disk work
+ * runs on one background thread; everything else, including the listener, is on the main
+ * thread.
+ */
+public final class WindowedCourseSource {
+
+    private static final String TAG = "WindowedCourseSource";
+
+    // Child events are written once this many are queued or this long after the first one
+    private static final int FLUSH_BATCH = 2000;
+    private static final long FLUSH_DELAY_MS = 100;
+
+    public interface Listener {
+        /** The catalog changed; positions may have shifted, so rebind everything. */
+        void onCountChanged(int count);
+
+        /** Rows {@code start} .. {@code start + count} are now loaded. */
+        void onRangeLoaded(int start, int count);
+
+        /** Totals over every stored course, hidden ones included, as the catalog summary reports them. */
+        void onSummaryChanged(@NonNull CatalogSummary summary);
+
+        void onError(@NonNull Exception e);
+    }
+
+    private final Context context;
+    private final CourseRepository repository;
+    private final CourseDiskStore store;
+    private final CourseWindowBudget budget;
+    private final Listener listener;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Child events not yet on disk, guarded by themselves
+    private final Map<String, Course> pendingUpserts = new LinkedHashMap<>();
+    private final Set<String> pendingRemovals = new HashSet<>();
+    private long pendingSyncedAt;
+    private boolean flushScheduled;
+
+    // Main thread
+    private int count;
+    private int windowStart;
+    private List<Course> window = Collections.emptyList();
+    private int loadingStart = -1;
+    private Set<String> hidden = Collections.emptySet();
+    private int trimLevel;
+    private int visibleCenter;
+    private boolean closed;
+    @Nullable
+    private CourseDataSource.Registration registration;
+
+    public WindowedCourseSource(@NonNull Context context,
+                                @NonNull CourseRepository repository,
+                                @NonNull CourseWindowBudget budget,
+                                @NonNull Listener listener) {
+        this.context = context.getApplicationContext();
+        this.repository = repository;
+        this.store = CourseDiskStore.getInstance(context);
+        this.budget = budget;
+        this.listener = listener;
+    }
+
+    /** Starts syncing the summaries until {@link #close()} or until {@code owner} is destroyed. Call once. */
+    public void start(@NonNull final LifecycleOwner owner) {
+        repository.syncCourseStore(context, new CourseRepository.OperationCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer changed) {
+                follow(owner);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                // Offline or failing: show what the store has and follow from there
+                Log.w(TAG, "start: Sync failed, showing stored courses", e);
+                follow(owner);
+            }
+        });
+    }
+
+    // Any thread: subscribes to changes from the store's mark on, then shows the store
+    private void follow(@NonNull final LifecycleOwner owner) {
+        execute(() -> {
+            final long since = Math.max(0L, store.getSyncedAt() - CourseSync.OVERLAP_MS);
+            mainHandler.post(() -> {
+                if (closed) {
+                    return;
+                }
+                subscribe(owner, since);
+                reload();
+            });
+        });
+    }
+
+    private void subscribe(@NonNull LifecycleOwner owner, long since) {
+        registration = repository.observeSummaryChildEventsSince(owner, since, new CourseDataSource.ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull String key, @Nullable Object value) {
+                onChild(key, CourseMapper.fromValue(key, value), CourseMapper.updatedAt(value));
+            }
+
+            @Override
+            public void onChildChanged(@NonNull String key, @Nullable Object value) {
+                onChild(key, CourseMapper.fromValue(key, value), CourseMapper.updatedAt(value));
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull String key) {
+                onChild(key, null, 0L);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "subscribe: Summary listener cancelled", e);
+                mainHandler.post(() -> listener.onError(e));
+            }
+        });
+    }
+
+    public void close() {
+        closed = true;
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        worker.shutdown();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** The course at {@code position}, or null while its part of the list is not loaded. */
+    @Nullable
+    public Course get(int position) {
+        int index = position - windowStart;
+        if (index >= 0 && index < window.size()) {
+            return window.get(index);
+        }
+        loadWindowAround(position);
+        return null;
+    }
+
+    /** Loaded rows, starting at list position {@link #getWindowStart()}. */
+    @NonNull
+    public List<Course> getWindow() {
+        return window;
+    }
+
+    public int getWindowStart() {
+        return windowStart;
+    }
+
+    /** Moves the window once the visible rows come within a quarter window of its edge. */
+    public void onVisibleRangeChanged(int first, int last) {
+        if (first < 0 || last < first) {
+            return;
+        }
+        visibleCenter = (first + last) / 2;
+        int margin = budget.getWindowSize(trimLevel) / 4;
+        int windowEnd = windowStart + window.size();
+        boolean nearStart = windowStart > 0 && first < windowStart + margin;
+        boolean nearEnd = windowEnd < count && last > windowEnd - margin;
+        if (nearStart || nearEnd || window.isEmpty()) {
+            loadWindowAround(visibleCenter);
+        }
+    }
+
+    /** Courses to leave out, such as those waiting on a delete. */
+    public void setHidden(@NonNull Set<String> courseIds) {
+        hidden = Collections.unmodifiableSet(new HashSet<>(courseIds));
+        reload();
+    }
+
+    public void onTrimMemory(int level) {
+        trimLevel = level;
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            // Nothing is visible; reload on demand when the list is shown again
+            Log.d(TAG, "onTrimMemory: Releasing " + window.size() + " loaded courses at level " + level);
+            window = Collections.emptyList();
+            windowStart = 0;
+            loadingStart = -1;
+        } else if (window.size() > budget.getWindowSize(level)) {
+            Log.d(TAG, "onTrimMemory: Shrinking window to " + budget.getWindowSize(level) + " at level " + level);
+            int size = budget.getWindowSize(level);
+            int from = Math.max(0, Math.min(window.size() - size, visibleCenter - windowStart - size / 2));
+            window = Collections.unmodifiableList(new ArrayList<>(window.subList(from, from + size)));
+            windowStart += from;
+        }
+    }
+
+    private void onChild(@NonNull String key, @Nullable Course course, long updatedAt) {
+        repository.getWriteTraces().onChild(key, course);
+        enqueue(key, course, updatedAt);
+    }
+
+    private void enqueue(@NonNull String key, @Nullable Course course, long updatedAt) {
+        if (closed) {
+            return;
+        }
+        boolean flushNow;
+        boolean schedule;
+        synchronized (pendingUpserts) {
+            if (course != null) {
+                pendingUpserts.put(key, course);
+                pendingRemovals.remove(key);
+            } else {
+                pendingUpserts.remove(key);
+                pendingRemovals.add(key);
+            }
+            pendingSyncedAt = Math.max(pendingSyncedAt, updatedAt);
+            flushNow = pendingUpserts.size() + pendingRemovals.size() >= FLUSH_BATCH;
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (flushNow) {
+            worker.execute(this::flush);
+        } else if (schedule) {
+            mainHandler.postDelayed(() -> worker.execute(this::flush), FLUSH_DELAY_MS);
+        }
+    }
+
+    // Worker thread
+    private void flush() {
+        Map<String, Course> upserts;
+        Set<String> removals;
+        long syncedAt;
+        synchronized (pendingUpserts) {
+            flushScheduled = false;
+            if (pendingUpserts.isEmpty() && pendingRemovals.isEmpty()) {
+                return;
+            }
+            upserts = new LinkedHashMap<>(pendingUpserts);
+            removals = new HashSet<>(pendingRemovals);
+            syncedAt = pendingSyncedAt;
+            pendingUpserts.clear();
+            pendingRemovals.clear();
+        }
+        try {
+            store.apply(upserts, removals, syncedAt);
+        } catch (Exception e) {
+            Log.e(TAG, "flush: Failed to write " + (upserts.size() + removals.size()) + " changes", e);
+            mainHandler.post(() -> listener.onError(e));
+            return;
+        }
+        mainHandler.post(this::reload);
+    }
+
+    /** Re-reads the count and the current window together so positions stay consistent. */
+    private void reload() {
+        final Set<String> hiddenNow = hidden;
+        final int start = windowStart;
+        final int size = budget.getWindowSize(trimLevel);
+        execute(() -> {
+            final int total = store.count(hiddenNow);
+            final List<Course> rows = store.read(start, size, hiddenNow);
+            final CatalogSummary summary = store.summarize();
+            mainHandler.post(() -> {
+                if (closed) {
+                    return;
+                }
+                count = total;
+                windowStart = start;
+                window = Collections.unmodifiableList(rows);
+                loadingStart = -1;
+                listener.onCountChanged(total);
+                listener.onSummaryChanged(summary);
+            });
+        });
+    }
+
+    private void loadWindowAround(int position) {
+        final int size = budget.getWindowSize(trimLevel);
+        final int start = Math.max(0, Math.min(position - size / 2, count - size));
+        if (loadingStart == start || (start == windowStart && !window.isEmpty())) {
+            return;
+        }
+        loadingStart = start;
+        final Set<String> hiddenNow = hidden;
+        execute(() -> {
+            final List<Course> rows = store.read(start, size, hiddenNow);
+            mainHandler.post(() -> {
+                if (closed || loadingStart != start) {
+                    return;
+                }
+                windowStart = start;
+                window = Collections.unmodifiableList(rows);
+                loadingStart = -1;
+                listener.onRangeLoaded(start, rows.size());
+            });
+        });
+    }
+
+    private void execute(@NonNull Runnable task) {
+        if (closed) {
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                Log.e(TAG, "execute: Course store read failed", e);
+                mainHandler.post(() -> listener.onError(e));
+            }
+        });
+    }
+}
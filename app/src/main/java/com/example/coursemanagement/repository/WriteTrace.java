@@ -0,0 +1,180 @@
+package com.example.coursemanagement.repository;
+
+import android.os.Build;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.coursemanagement.model.Course;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One course mutation followed from the submit tap to its rows on screen. Each stage is
+ * stamped once, on whichever thread reaches it. On API 29+ the trace also shows in a system
+ * trace as async {@link Trace} sections, which may start and end on different threads:
+ * {@code CourseWrite#<id> <operation>} from submit until the trace ends, and under it
+ * {@code CourseWrite#<id> <stage> ->} from each stage until the next one, so the gaps
+ * between stages have their real length. Stages can arrive out of order: Firebase raises
+ * local listener events before the server acknowledges the write, and offline writes are
+ * never acknowledged.
+ */
+public final class WriteTrace {
+
+    public enum Stage {
+        SUBMIT("submit"),
+        VALIDATED("validated"),
+        READ("existence read"),
+        WRITE_ACK("write ack"),
+        LISTENER("listener"),
+        LIST_SUBMITTED("list submitted"),
+        ROWS_BOUND("rows bound");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+    }
+
+    // Width of the longest bar in the waterfall
+    private static final int BAR_WIDTH = 40;
+
+    private final int id;
+    private final String operation;
+    private final long startNanos = System.nanoTime();
+    // Nanos since start per stage, -1 until reached; guarded by this
+    private final long[] stageNanos = new long[Stage.values().length];
+    // Set once the write is sent: the course it targets and, unless it is a delete, its new content
+    private String courseId;
+    @Nullable
+    private Course expected;
+    private String outcome;
+    // The async section running since the last stamped stage, until the next one or the end
+    @Nullable
+    private String openSection;
+
+    WriteTrace(int id, @NonNull String operation) {
+        this.id = id;
+        this.operation = operation;
+        Arrays.fill(stageNanos, -1L);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /** Stamps {@code stage} the first time it is reached; later calls are ignored. */
+    public void mark(@NonNull Stage stage) {
+        synchronized (this) {
+            if (outcome != null || stageNanos[stage.ordinal()] >= 0) {
+                return;
+            }
+            stageNanos[stage.ordinal()] = System.nanoTime() - startNanos;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                if (openSection == null) {
+                    Trace.beginAsyncSection(sectionName(), id);
+                } else {
+                    Trace.endAsyncSection(openSection, id);
+                }
+                openSection = "CourseWrite#" + id + " " + stage.label + " ->";
+                Trace.beginAsyncSection(openSection, id);
+            }
+        }
+    }
+
+    public synchronized boolean has(@NonNull Stage stage) {
+        return stageNanos[stage.ordinal()] >= 0;
+    }
+
+    synchronized void target(@NonNull String courseId, @Nullable Course expected) {
+        this.courseId = courseId;
+        this.expected = expected;
+    }
+
+    @Nullable
+    synchronized String getCourseId() {
+        return courseId;
+    }
+
+    synchronized boolean isDelete() {
+        return expected == null;
+    }
+
+    /** Whether {@code course}, as listed, already shows this write. */
+    synchronized boolean isShownBy(@Nullable Course course) {
+        if (expected == null) {
+            return course == null;
+        }
+        return course != null
+                && course.getCourseName().equals(expected.getCourseName())
+                && course.getCourseCode().equals(expected.getCourseCode())
+                && course.getCreditHours() == expected.getCreditHours()
+                && course.getType() == expected.getType();
+    }
+
+    /** Ends the trace; no stage is stamped afterwards. Returns false if it had already ended. */
+    synchronized boolean finish(@NonNull String outcome) {
+        if (this.outcome != null) {
+            return false;
+        }
+        this.outcome = outcome;
+        if (openSection != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(openSection, id);
+            Trace.endAsyncSection(sectionName(), id);
+        }
+        openSection = null;
+        return true;
+    }
+
+    @NonNull
+    private String sectionName() {
+        return "CourseWrite#" + id + " " + operation;
+    }
+
+    long getAgeNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Prints the reached stages in time order as a waterfall: each bar runs from the
+     * previous stage to this one, on a scale where the whole trace is {@value #BAR_WIDTH} wide.
+     */
+    synchronized void dump(@NonNull PrintWriter writer) {
+        List<Stage> reached = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            if (stageNanos[stage.ordinal()] >= 0) {
+                reached.add(stage);
+            }
+        }
+        Collections.sort(reached, (a, b) -> Long.compare(stageNanos[a.ordinal()], stageNanos[b.ordinal()]));
+        long total = reached.isEmpty() ? 0 : stageNanos[reached.get(reached.size() - 1).ordinal()];
+
+        writer.println("  #" + id + " " + operation + " " + (courseId != null ? courseId : "-") + " "
+                + (outcome != null ? outcome : "in progress") + ", "
+                + LatencyHistogram.formatMicros(total / 1000));
+        long previous = 0;
+        for (Stage stage : reached) {
+            long at = stageNanos[stage.ordinal()];
+            int from = scale(previous, total);
+            int to = Math.max(from + 1, scale(at, total));
+            StringBuilder bar = new StringBuilder(to);
+            for (int i = 0; i < to; i++) {
+                bar.append(i < from ? ' ' : '#');
+            }
+            writer.println(String.format(Locale.ROOT, "    %-15s %9s |%s",
+                    stage.label, LatencyHistogram.formatMicros(at / 1000), bar));
+            previous = at;
+        }
+    }
+
+    private static int scale(long nanos, long total) {
+        return total == 0 ? 0 : (int) (nanos * BAR_WIDTH / total);
+    }
+}
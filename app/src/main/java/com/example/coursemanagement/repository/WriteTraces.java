@@ -0,0 +1,190 @@
+package com.example.coursemanagement.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.coursemanagement.model.Course;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Traces of recent course mutations, for {@link CourseRepository} and the list that shows
+ * its courses. The repository stamps the stages up to the write acknowledgement; once the
+ * write is sent the trace waits, keyed by course id, for the listener, list and row stages,
+ * fed by the plain list's snapshots or the windowed list's child events and loaded window.
+ * An add or update ends when its row is bound and the write is acknowledged, a delete when
+ * the listener no longer lists the course. Traces still open after
+ * {@link #TIMEOUT_NANOS} end as incomplete, for example when the row is off screen.
+ */
+public final class WriteTraces {
+
+    private static final String TAG = "WriteTraces";
+
+    static final int MAX_FINISHED = 20;
+    static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final AtomicInteger ids = new AtomicInteger();
+    // Sent writes waiting for later stages, by course id
+    private final Map<String, WriteTrace> waiting = new ConcurrentHashMap<>();
+    // Newest first, guarded by itself
+    private final ArrayDeque<WriteTrace> finished = new ArrayDeque<>(MAX_FINISHED);
+
+    WriteTraces() {
+    }
+
+    /** Starts a trace at {@link WriteTrace.Stage#SUBMIT}. Pass it to the repository call it describes. */
+    @NonNull
+    public WriteTrace begin(@NonNull RepositoryMetrics.Operation operation) {
+        WriteTrace trace = new WriteTrace(ids.incrementAndGet(), operation.getLabel());
+        trace.mark(WriteTrace.Stage.SUBMIT);
+        return trace;
+    }
+
+    /** Wraps a callback so success stamps the write acknowledgement and failure ends the trace. */
+    @NonNull
+    <T> CourseRepository.OperationCallback<T> traced(@NonNull final WriteTrace trace,
+                                                     @NonNull final CourseRepository.OperationCallback<T> callback) {
+        return new CourseRepository.OperationCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                trace.mark(WriteTrace.Stage.WRITE_ACK);
+                finishIfDone(trace);
+                callback.onSuccess(result);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                finish(trace, "failed: " + e.getMessage());
+                callback.onError(e);
+            }
+        };
+    }
+
+    /** The write is about to be sent; {@code expected} is the new content, or null for a delete. */
+    void sent(@NonNull WriteTrace trace, @NonNull String courseId, @Nullable Course expected) {
+        trace.target(courseId, expected);
+        WriteTrace replaced = waiting.put(courseId, trace);
+        if (replaced != null && replaced != trace) {
+            finish(replaced, "superseded by #" + trace.getId());
+        }
+    }
+
+    /** A course list decoded from a listener snapshot. */
+    void onCatalog(@NonNull CourseCatalog catalog) {
+        if (waiting.isEmpty()) {
+            return;
+        }
+        for (WriteTrace trace : waiting.values()) {
+            onListed(trace, catalog.get(trace.getCourseId()));
+        }
+        expire();
+    }
+
+    /** A single summary from a child event, as the windowed list receives them; null once removed. */
+    void onChild(@NonNull String courseId, @Nullable Course course) {
+        if (waiting.isEmpty()) {
+            return;
+        }
+        WriteTrace trace = waiting.get(courseId);
+        if (trace != null) {
+            onListed(trace, course);
+        }
+        expire();
+    }
+
+    /** The list handed to the adapter has been diffed and applied. */
+    public void onListSubmitted(@NonNull List<Course> courses) {
+        if (waiting.isEmpty()) {
+            return;
+        }
+        for (Course course : courses) {
+            WriteTrace trace = waiting.get(course.getId());
+            if (trace != null && trace.has(WriteTrace.Stage.LISTENER)) {
+                trace.mark(WriteTrace.Stage.LIST_SUBMITTED);
+            }
+        }
+    }
+
+    /** A course row was bound; cheap when nothing is waiting. */
+    public void onRowBound(@NonNull Course course) {
+        if (waiting.isEmpty()) {
+            return;
+        }
+        WriteTrace trace = waiting.get(course.getId());
+        if (trace != null && trace.has(WriteTrace.Stage.LIST_SUBMITTED)) {
+            trace.mark(WriteTrace.Stage.ROWS_BOUND);
+            finishIfDone(trace);
+        }
+    }
+
+    public void reset() {
+        waiting.clear();
+        synchronized (finished) {
+            finished.clear();
+        }
+    }
+
+    /** Waterfalls of the open traces, then of the last {@value #MAX_FINISHED} finished ones. */
+    public void dump(@NonNull PrintWriter writer) {
+        expire();
+        writer.println("Write traces (newest first):");
+        for (WriteTrace trace : waiting.values()) {
+            trace.dump(writer);
+        }
+        synchronized (finished) {
+            for (WriteTrace trace : finished) {
+                trace.dump(writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void onListed(@NonNull WriteTrace trace, @Nullable Course listed) {
+        if (!trace.has(WriteTrace.Stage.LISTENER) && trace.isShownBy(listed)) {
+            trace.mark(WriteTrace.Stage.LISTENER);
+            finishIfDone(trace);
+        }
+    }
+
+    private void finishIfDone(@NonNull WriteTrace trace) {
+        WriteTrace.Stage last = trace.isDelete() ? WriteTrace.Stage.LISTENER : WriteTrace.Stage.ROWS_BOUND;
+        if (trace.has(WriteTrace.Stage.WRITE_ACK) && trace.has(last)) {
+            finish(trace, "ok");
+        }
+    }
+
+    private void finish(@NonNull WriteTrace trace, @NonNull String outcome) {
+        if (!trace.finish(outcome)) {
+            return;
+        }
+        String courseId = trace.getCourseId();
+        if (courseId != null) {
+            waiting.remove(courseId, trace);
+        }
+        Log.d(TAG, "finish: #" + trace.getId() + " " + outcome);
+        synchronized (finished) {
+            if (finished.size() == MAX_FINISHED) {
+                finished.removeLast();
+            }
+            finished.addFirst(trace);
+        }
+    }
+
+    private void expire() {
+        for (Iterator<WriteTrace> it = waiting.values().iterator(); it.hasNext(); ) {
+            WriteTrace trace = it.next();
+            if (trace.getAgeNanos() > TIMEOUT_NANOS) {
+                finish(trace, "incomplete");
+            }
+        }
+    }
+}
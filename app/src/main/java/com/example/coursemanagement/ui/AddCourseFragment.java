@@ -16,14 +16,18 @@ import androidx.navigation.fragment.NavHostFragment;
 import com.example.coursemanagement.R;
 import com.example.coursemanagement.databinding.FragmentAddCourseBinding;
 import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
 import com.example.coursemanagement.repository.CourseRepository;
+import com.example.coursemanagement.repository.RepositoryMetrics;
+import com.example.coursemanagement.repository.WriteTrace;
+import com.example.coursemanagement.ui.debug.PerformanceReport;
 
 public class AddCourseFragment extends Fragment {
 
     private static final String TAG = "AddCourseFragment";
 
     private FragmentAddCourseBinding binding;
-    private final CourseRepository courseRepository = new CourseRepository();
+    private final CourseRepository courseRepository = CourseRepository.getInstance();
 
     @Nullable
     @Override
@@ -101,7 +105,7 @@ public class AddCourseFragment extends Fragment {
                 return;
             }
 
-            String courseType = binding.rbTheory.isChecked() ? "Theory" : "Lab";
+            CourseType courseType = binding.rbTheory.isChecked() ? CourseType.THEORY : CourseType.LAB;
             Log.d(TAG, "addCourse: Course type selected: " + courseType);
 
             Course course = new Course(
@@ -110,7 +114,8 @@ public class AddCourseFragment extends Fragment {
                     courseCode,
                     creditHours,
                     courseType,
-                    System.currentTimeMillis()
+                    // Assigned by the server when the course is written
+                    0L
             );
 
             Log.d(TAG, "addCourse: Course object created: " + course);
@@ -118,7 +123,49 @@ public class AddCourseFragment extends Fragment {
             binding.btnAddCourse.setEnabled(false);
             binding.btnAddCourse.setText("Adding...");
 
-            courseRepository.addCourse(course, new CourseRepository.OperationCallback<String>() {
+            // Checked against the server's code index so the field can show the error; the
+            // write still claims the code on the server
+            courseRepository.isCourseCodeTaken(courseCode, null, new CourseRepository.OperationCallback<Boolean>() {
+                @Override
+                public void onSuccess(Boolean taken) {
+                    if (binding == null) {
+                        return;
+                    }
+                    if (Boolean.TRUE.equals(taken)) {
+                        Log.w(TAG, "addCourse: Course code validation failed - already exists: " + courseCode);
+                        binding.etCourseCode.setError("Course code already exists");
+                        binding.btnAddCourse.setEnabled(true);
+                        binding.btnAddCourse.setText("Add Course");
+                        return;
+                    }
+                    saveCourse(course);
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    Log.w(TAG, "addCourse: Course code check failed, leaving it to the server", e);
+                    if (binding != null) {
+                        saveCourse(course);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "addCourse: Critical error in addCourse function", e);
+            showErrorToUser("Critical error in add course process", e);
+            try {
+                binding.btnAddCourse.setEnabled(true);
+                binding.btnAddCourse.setText("Add Course");
+            } catch (Exception btnError) {
+                Log.e(TAG, "addCourse: Error re-enabling button after critical failure", btnError);
+            }
+        }
+    }
+
+    private void saveCourse(@NonNull Course course) {
+        try {
+            // Begun only once the input is valid, so a rejected form leaves no open trace
+            WriteTrace trace = courseRepository.getWriteTraces().begin(RepositoryMetrics.Operation.ADD);
+            courseRepository.addCourse(course, trace, new CourseRepository.OperationCallback<String>() {
                 @Override
                 public void onSuccess(String result) {
                     try {
@@ -153,7 +200,7 @@ public class AddCourseFragment extends Fragment {
                 }
             });
         } catch (Exception e) {
-            Log.e(TAG, "addCourse: Critical error in addCourse function", e);
+            Log.e(TAG, "addCourse: Critical error sending the course", e);
             showErrorToUser("Critical error in add course process", e);
             try {
                 binding.btnAddCourse.setEnabled(true);
@@ -188,6 +235,18 @@ public class AddCourseFragment extends Fragment {
         }
     }
 
+    @Override
+    public void onStart() {
+        super.onStart();
+        PerformanceReport.putState(getView(), PerformanceReport.STATE_SCREEN, "adding");
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        PerformanceReport.removeState(getView(), PerformanceReport.STATE_SCREEN);
+    }
+
     @Override
     public void onDestroyView() {
         try {
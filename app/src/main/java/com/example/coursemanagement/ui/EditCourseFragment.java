@@ -15,15 +15,21 @@ import androidx.navigation.fragment.NavHostFragment;
 
 import com.example.coursemanagement.databinding.FragmentEditCourseBinding;
 import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
 import com.example.coursemanagement.repository.CourseRepository;
+import com.example.coursemanagement.repository.RepositoryMetrics;
+import com.example.coursemanagement.repository.WriteTrace;
+import com.example.coursemanagement.ui.debug.PerformanceReport;
+import com.google.android.material.snackbar.Snackbar;
 
 public class EditCourseFragment extends Fragment {
 
     private static final String TAG = "EditCourseFragment";
 
     private FragmentEditCourseBinding binding;
-    private final CourseRepository courseRepository = new CourseRepository();
+    private final CourseRepository courseRepository = CourseRepository.getInstance();
     private Course currentCourse;
+    private Snackbar retrySnackbar;
 
     @Nullable
     @Override
@@ -52,13 +58,15 @@ public class EditCourseFragment extends Fragment {
                     String courseName = bundle.getString("courseName", "");
                     String courseCode = bundle.getString("courseCode", "");
                     int creditHours = bundle.getInt("creditHours", 0);
-                    String courseType = bundle.getString("courseType", "Theory");
-                    long timestamp = bundle.getLong("timestamp", System.currentTimeMillis());
+                    CourseType courseType = CourseType.fromLabel(bundle.getString("courseType"));
+                    long timestamp = bundle.getLong("timestamp", 0L);
 
                     Log.d(TAG, "onViewCreated: Loading course data - ID: " + courseId + ", Name: " + courseName);
 
+                    // The arguments carry the list summary; show it now and load the full record behind it
                     currentCourse = new Course(courseId, courseName, courseCode, creditHours, courseType, timestamp);
                     populateFields();
+                    loadFullCourse(courseId);
                 } catch (Exception e) {
                     Log.e(TAG, "onViewCreated: Error processing arguments", e);
                     showErrorToUser("Error loading course data", e);
@@ -101,6 +109,47 @@ public class EditCourseFragment extends Fragment {
         }
     }
 
+    private void loadFullCourse(@NonNull String courseId) {
+        binding.btnUpdateCourse.setEnabled(false);
+        courseRepository.getCourseById(courseId, new CourseRepository.OperationCallback<Course>() {
+            @Override
+            public void onSuccess(Course course) {
+                if (binding == null) {
+                    Log.d(TAG, "loadFullCourse: Fragment binding is null, skipping UI update");
+                    return;
+                }
+                if (course == null) {
+                    Log.w(TAG, "loadFullCourse: Course no longer exists: " + courseId);
+                    showErrorToUser("This course has been deleted", null);
+                    try {
+                        NavHostFragment.findNavController(EditCourseFragment.this).navigateUp();
+                    } catch (Exception navError) {
+                        Log.e(TAG, "loadFullCourse: Navigation error after missing course", navError);
+                    }
+                    return;
+                }
+                Log.d(TAG, "loadFullCourse: Loaded full record for " + course.getCourseName());
+                if (!course.equals(currentCourse)) {
+                    currentCourse = course;
+                    populateFields();
+                }
+                binding.btnUpdateCourse.setEnabled(true);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "loadFullCourse: Failed to load course " + courseId, e);
+                if (binding == null) {
+                    return;
+                }
+                // Save stays off: the form may hold only the summary, and saving it would drop the rest of the record
+                retrySnackbar = Snackbar.make(binding.getRoot(), "Couldn't load course details", Snackbar.LENGTH_INDEFINITE)
+                        .setAction("Retry", v -> loadFullCourse(courseId));
+                retrySnackbar.show();
+            }
+        });
+    }
+
     private void populateFields() {
         try {
             Log.d(TAG, "populateFields: Populating form with course data");
@@ -108,7 +157,7 @@ public class EditCourseFragment extends Fragment {
             binding.etCourseCodeEdit.setText(currentCourse.getCourseCode());
             binding.etCreditHoursEdit.setText(String.valueOf(currentCourse.getCreditHours()));
 
-            if ("Theory".equals(currentCourse.getCourseType())) {
+            if (currentCourse.getType() == CourseType.THEORY) {
                 binding.rbTheoryEdit.setChecked(true);
             } else {
                 binding.rbLabEdit.setChecked(true);
@@ -162,7 +211,7 @@ public class EditCourseFragment extends Fragment {
                 return;
             }
 
-            String courseType = binding.rbTheoryEdit.isChecked() ? "Theory" : "Lab";
+            CourseType courseType = binding.rbTheoryEdit.isChecked() ? CourseType.THEORY : CourseType.LAB;
             Log.d(TAG, "updateCourse: Course type selected: " + courseType);
 
             Course updatedCourse = new Course(
@@ -179,7 +228,46 @@ public class EditCourseFragment extends Fragment {
             binding.btnUpdateCourse.setEnabled(false);
             binding.btnUpdateCourse.setText("Updating...");
 
-            courseRepository.updateCourse(updatedCourse, new CourseRepository.OperationCallback<Void>() {
+            courseRepository.isCourseCodeTaken(courseCode, currentCourse.getId(), new CourseRepository.OperationCallback<Boolean>() {
+                @Override
+                public void onSuccess(Boolean taken) {
+                    if (binding == null) {
+                        return;
+                    }
+                    if (Boolean.TRUE.equals(taken)) {
+                        Log.w(TAG, "updateCourse: Course code validation failed - already exists: " + courseCode);
+                        binding.etCourseCodeEdit.setError("Course code already exists");
+                        binding.btnUpdateCourse.setEnabled(true);
+                        binding.btnUpdateCourse.setText("Update");
+                        return;
+                    }
+                    saveCourse(updatedCourse);
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    Log.w(TAG, "updateCourse: Course code check failed, leaving it to the server", e);
+                    if (binding != null) {
+                        saveCourse(updatedCourse);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "updateCourse: Critical error in updateCourse function", e);
+            showErrorToUser("Critical error in update course process", e);
+            try {
+                binding.btnUpdateCourse.setEnabled(true);
+                binding.btnUpdateCourse.setText("Update");
+            } catch (Exception btnError) {
+                Log.e(TAG, "updateCourse: Error re-enabling button after critical failure", btnError);
+            }
+        }
+    }
+
+    private void saveCourse(@NonNull Course updatedCourse) {
+        try {
+            WriteTrace trace = courseRepository.getWriteTraces().begin(RepositoryMetrics.Operation.UPDATE);
+            courseRepository.updateCourse(updatedCourse, trace, new CourseRepository.OperationCallback<Void>() {
                 @Override
                 public void onSuccess(Void result) {
                     try {
@@ -214,7 +302,7 @@ public class EditCourseFragment extends Fragment {
                 }
             });
         } catch (Exception e) {
-            Log.e(TAG, "updateCourse: Critical error in updateCourse function", e);
+            Log.e(TAG, "updateCourse: Critical error sending the course", e);
             showErrorToUser("Critical error in update course process", e);
             try {
                 binding.btnUpdateCourse.setEnabled(true);
@@ -235,11 +323,27 @@ public class EditCourseFragment extends Fragment {
         }
     }
 
+    @Override
+    public void onStart() {
+        super.onStart();
+        PerformanceReport.putState(getView(), PerformanceReport.STATE_SCREEN, "editing");
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        PerformanceReport.removeState(getView(), PerformanceReport.STATE_SCREEN);
+    }
+
     @Override
     public void onDestroyView() {
         try {
             Log.d(TAG, "onDestroyView: Cleaning up EditCourseFragment");
             super.onDestroyView();
+            if (retrySnackbar != null) {
+                retrySnackbar.dismiss();
+                retrySnackbar = null;
+            }
             binding = null;
         } catch (Exception e) {
             Log.e(TAG, "onDestroyView: Error during cleanup", e);
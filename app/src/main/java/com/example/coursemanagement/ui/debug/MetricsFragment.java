@@ -0,0 +1,110 @@
+package com.example.coursemanagement.ui.debug;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+
+import com.example.coursemanagement.databinding.FragmentMetricsBinding;
+import com.example.coursemanagement.repository.CourseRepository;
+import com.example.coursemanagement.repository.RepositoryMetrics;
+import com.example.coursemanagement.repository.SummaryMigration;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/** Debug screen showing the same metrics, subscriptions, write traces and performance report as the activity dump. */
+public class MetricsFragment extends Fragment {
+
+    private static final String TAG = "MetricsFragment";
+
+    private FragmentMetricsBinding binding;
+    private final CourseRepository courseRepository = CourseRepository.getInstance();
+    private final RepositoryMetrics metrics = courseRepository.getMetrics();
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        try {
+            Log.d(TAG, "onCreateView: Inflating MetricsFragment");
+            binding = FragmentMetricsBinding.inflate(inflater, container, false);
+            return binding.getRoot();
+        } catch (Exception e) {
+            Log.e(TAG, "onCreateView: Error inflating layout", e);
+            Toast.makeText(getContext(), "Error loading metrics screen: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            return null;
+        }
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        binding.btnRefreshMetrics.setOnClickListener(v -> showMetrics());
+        binding.btnResetMetrics.setOnClickListener(v -> {
+            Log.d(TAG, "Resetting repository metrics");
+            metrics.reset();
+            courseRepository.getWriteTraces().reset();
+            PerformanceReport.getInstance().reset();
+            showMetrics();
+        });
+        binding.btnMigrateSummaries.setOnClickListener(v -> migrateSummaries());
+        showMetrics();
+    }
+
+    private void migrateSummaries() {
+        binding.btnMigrateSummaries.setEnabled(false);
+        courseRepository.migrateSummaries(new SummaryMigration.Listener() {
+            @Override
+            public void onProgress(int copied) {
+                if (binding != null) {
+                    binding.btnMigrateSummaries.setText("Copied " + copied + " courses…");
+                }
+            }
+
+            @Override
+            public void onComplete(int copied, int skipped) {
+                Toast.makeText(getContext(), "Copied " + copied + " courses into summaries, skipped " + skipped, Toast.LENGTH_LONG).show();
+                if (binding != null) {
+                    binding.btnMigrateSummaries.setText("Rebuild summaries");
+                    binding.btnMigrateSummaries.setEnabled(true);
+                }
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "migrateSummaries: Migration failed", e);
+                Toast.makeText(getContext(), "Summary migration failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                if (binding != null) {
+                    binding.btnMigrateSummaries.setText("Rebuild summaries");
+                    binding.btnMigrateSummaries.setEnabled(true);
+                }
+            }
+        });
+    }
+
+    private void showMetrics() {
+        try {
+            StringWriter text = new StringWriter();
+            PrintWriter writer = new PrintWriter(text);
+            metrics.dump(writer);
+            courseRepository.getSubscriptions().dump(writer);
+            courseRepository.getWriteTraces().dump(writer);
+            PerformanceReport.getInstance().dump(writer);
+            binding.tvMetrics.setText(text.toString());
+        } catch (Exception e) {
+            Log.e(TAG, "showMetrics: Error rendering metrics", e);
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        binding = null;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.coursemanagement.ui.debug;
+
+import android.os.Build;
+import android.os.StrictMode;
+import android.util.Log;
+import android.view.View;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+import androidx.metrics.performance.FrameData;
+import androidx.metrics.performance.JankStats;
+import androidx.metrics.performance.PerformanceMetricsState;
+import androidx.metrics.performance.StateInfo;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Frame timing and main-thread policy violations for debug builds. {@link JankStats} reports
+ * every frame of the activity's window; frames are counted per UI state tag (for example
+ * {@code CourseList=scrolling}) that was active while they were drawn. StrictMode violations
+ * are counted per type with the first stack seen. Both appear in the activity's dumpsys
+ * output and on the metrics screen.
+ */
+public final class PerformanceReport {
+
+    private static final String TAG = "PerformanceReport";
+
+    // UI state keys; values are free-form
+    public static final String STATE_COURSE_LIST = "CourseList";
+    public static final String STATE_LIST_UPDATE = "ListUpdate";
+    public static final String STATE_SCREEN = "Screen";
+
+    private static final String UNTAGGED = "(untagged)";
+    // Upper bounds in ms of the frame duration buckets; the last bucket is open-ended
+    private static final long[] FRAME_BUCKETS_MS = {8, 16, 33, 50, 100, 250};
+    private static final int STACK_FRAMES = 8;
+
+    private static final PerformanceReport INSTANCE = new PerformanceReport();
+
+    private final Object lock = new Object();
+    // The policies outlive the activity that sets them, and each setup starts a listener thread
+    private final AtomicBoolean strictModeEnabled = new AtomicBoolean();
+    private final Map<String, FrameStats> framesByState = new TreeMap<>();
+    private FrameStats allFrames = new FrameStats();
+    private final Map<String, ViolationStats> violations = new TreeMap<>();
+
+    private static final class FrameStats {
+        long frames;
+        long janky;
+        long worstNanos;
+        final long[] buckets = new long[FRAME_BUCKETS_MS.length + 1];
+
+        void record(long durationNanos, boolean jank) {
+            frames++;
+            if (jank) {
+                janky++;
+            }
+            worstNanos = Math.max(worstNanos, durationNanos);
+            long millis = durationNanos / 1_000_000L;
+            int bucket = 0;
+            while (bucket < FRAME_BUCKETS_MS.length && millis >= FRAME_BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+        }
+
+        @NonNull
+        String format() {
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "frames=%d janky=%d (%.1f%%) worst=%.1fms [",
+                    frames, janky, frames == 0 ? 0.0 : 100.0 * janky / frames, worstNanos / 1e6));
+            for (int i = 0; i < buckets.length; i++) {
+                if (i > 0) {
+                    text.append(' ');
+                }
+                text.append(i < FRAME_BUCKETS_MS.length ? "<" + FRAME_BUCKETS_MS[i] : ">=" + FRAME_BUCKETS_MS[i - 1])
+                        .append("ms:").append(buckets[i]);
+            }
+            return text.append(']').toString();
+        }
+    }
+
+    private static final class ViolationStats {
+        long count;
+        final String firstStack;
+
+        ViolationStats(@NonNull String firstStack) {
+            this.firstStack = firstStack;
+        }
+    }
+
+    private PerformanceReport() {
+    }
+
+    @NonNull
+    public static PerformanceReport getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Turns on StrictMode thread and VM policies for the whole process. Violations are logged,
+     * and on API 28+ also counted here. Call before the first disk or network access; only
+     * the first call in a process has an effect.
+     */
+    public void enableStrictMode() {
+        if (!strictModeEnabled.compareAndSet(false, true)) {
+            return;
+        }
+        StrictMode.ThreadPolicy.Builder threadPolicy = new StrictMode.ThreadPolicy.Builder()
+                .detectAll()
+                .penaltyLog();
+        StrictMode.VmPolicy.Builder vmPolicy = new StrictMode.VmPolicy.Builder()
+                .detectActivityLeaks()
+                .detectLeakedClosableObjects()
+                .detectLeakedRegistrationObjects()
+                .detectLeakedSqlLiteObjects()
+                .penaltyLog();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            addViolationListeners(threadPolicy, vmPolicy);
+        }
+        StrictMode.setThreadPolicy(threadPolicy.build());
+        StrictMode.setVmPolicy(vmPolicy.build());
+        Log.i(TAG, "enableStrictMode: Thread and VM policies enabled");
+    }
+
+    @RequiresApi(Build.VERSION_CODES.P)
+    private void addViolationListeners(@NonNull StrictMode.ThreadPolicy.Builder threadPolicy,
+                                       @NonNull StrictMode.VmPolicy.Builder vmPolicy) {
+        // Off the violating thread, which is usually the main thread
+        Executor executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, TAG);
+            thread.setDaemon(true);
+            return thread;
+        });
+        threadPolicy.penaltyListener(executor, violation -> recordViolation("thread", violation));
+        vmPolicy.penaltyListener(executor, violation -> recordViolation("vm", violation));
+    }
+
+    /**
+     * Starts reporting the frames of {@code window}. Pause the returned tracker while the
+     * activity is not visible with {@link JankStats#setTrackingEnabled}.
+     */
+    @NonNull
+    public JankStats trackFrames(@NonNull Window window) {
+        return JankStats.createAndTrack(window, this::recordFrame);
+    }
+
+    /** Tags the frames of {@code view}'s window until the tag is removed; a no-op when frames are not tracked. */
+    public static void putState(@Nullable View view, @NonNull String key, @NonNull String value) {
+        PerformanceMetricsState state = stateOf(view);
+        if (state != null) {
+            state.putState(key, value);
+        }
+    }
+
+    public static void removeState(@Nullable View view, @NonNull String key) {
+        PerformanceMetricsState state = stateOf(view);
+        if (state != null) {
+            state.removeState(key);
+        }
+    }
+
+    @Nullable
+    private static PerformanceMetricsState stateOf(@Nullable View view) {
+        return view != null ? PerformanceMetricsState.getHolderForHierarchy(view).getState() : null;
+    }
+
+    private void recordFrame(@NonNull FrameData frame) {
+        long duration = frame.getFrameDurationUiNanos();
+        boolean jank = frame.isJank();
+        synchronized (lock) {
+            allFrames.record(duration, jank);
+            if (frame.getStates().isEmpty()) {
+                statsFor(UNTAGGED).record(duration, jank);
+            }
+            for (StateInfo state : frame.getStates()) {
+                statsFor(state.getKey() + "=" + state.getValue()).record(duration, jank);
+            }
+        }
+    }
+
+    @NonNull
+    private FrameStats statsFor(@NonNull String tag) {
+        FrameStats stats = framesByState.get(tag);
+        if (stats == null) {
+            stats = new FrameStats();
+            framesByState.put(tag, stats);
+        }
+        return stats;
+    }
+
+    private void recordViolation(@NonNull String policy, @NonNull Throwable violation) {
+        String key = policy + " " + violation.getClass().getSimpleName();
+        synchronized (lock) {
+            ViolationStats stats = violations.get(key);
+            if (stats == null) {
+                stats = new ViolationStats(formatStack(violation));
+                violations.put(key, stats);
+            }
+            stats.count++;
+        }
+    }
+
+    @NonNull
+    private static String formatStack(@NonNull Throwable violation) {
+        StringBuilder text = new StringBuilder();
+        StackTraceElement[] stack = violation.getStackTrace();
+        for (int i = 0; i < Math.min(STACK_FRAMES, stack.length); i++) {
+            text.append("      at ").append(stack[i]).append('\n');
+        }
+        return text.toString();
+    }
+
+    public void reset() {
+        synchronized (lock) {
+            framesByState.clear();
+            allFrames = new FrameStats();
+            violations.clear();
+        }
+    }
+
+    public void dump(@NonNull PrintWriter writer) {
+        synchronized (lock) {
+            writer.println("Frames: " + allFrames.format());
+            for (Map.Entry<String, FrameStats> entry : framesByState.entrySet()) {
+                writer.println("  " + entry.getKey() + ": " + entry.getValue().format());
+            }
+            writer.println("StrictMode violations:" + (violations.isEmpty() ? " none" : ""));
+            for (Map.Entry<String, ViolationStats> entry : violations.entrySet()) {
+                writer.println("  " + entry.getKey() + ": " + entry.getValue().count);
+                writer.print(entry.getValue().firstStack);
+            }
+        }
+        writer.flush();
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.coursemanagement.ui.home;
 
-import android.app.AlertDialog;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
 import android.os.Bundle;
+import android.os.StrictMode;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -14,24 +17,99 @@ import androidx.fragment.app.Fragment;
 import androidx.navigation.NavController;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.coursemanagement.BuildConfig;
+import com.example.coursemanagement.MainActivity;
 import com.example.coursemanagement.R;
 import com.example.coursemanagement.adapter.CourseAdapter;
+import com.example.coursemanagement.adapter.WindowedCourseAdapter;
 import com.example.coursemanagement.databinding.FragmentHomeBinding;
 import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+import com.example.coursemanagement.repository.CatalogSummary;
+import com.example.coursemanagement.repository.CourseDataSource;
 import com.example.coursemanagement.repository.CourseRepository;
-import com.google.firebase.database.ValueEventListener;
+import com.example.coursemanagement.repository.CourseRepositoryFlows;
+import com.example.coursemanagement.repository.CourseSnapshot;
+import com.example.coursemanagement.repository.CourseWindowBudget;
+import com.example.coursemanagement.repository.WindowedCourseSource;
+import com.example.coursemanagement.ui.debug.PerformanceReport;
+import com.google.android.material.snackbar.Snackbar;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import kotlinx.coroutines.Job;
 
 public class HomeFragment extends Fragment {
 
     private static final String TAG = "HomeFragment";
 
+    // Remembers that the catalog was too large for a plain list, so the next visit starts windowed
+    private static final String PREFS_COURSE_LIST = "course_list";
+    private static final String PREF_WINDOWED = "windowed";
+
     private FragmentHomeBinding binding;
-    private final CourseRepository courseRepository = new CourseRepository();
+    private final CourseRepository courseRepository = CourseRepository.getInstance();
     private CourseAdapter courseAdapter;
-    private ValueEventListener coursesListener;
+    private CourseWindowBudget windowBudget;
+    private CourseSnapshot snapshot;
+    // Set while the whole list is collected into memory
+    private Job coursesJob;
+    // Set while the list is windowed, for catalogs over CourseWindowBudget.getMaxInMemoryCourses()
+    private WindowedCourseAdapter windowedAdapter;
+    private WindowedCourseSource windowedSource;
+    private final ComponentCallbacks2 trimCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (windowedSource != null) {
+                windowedSource.onTrimMemory(level);
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        }
+    };
+    // Latest summary not yet rendered; child events arrive in bursts, so rendering is posted once per burst
+    private CatalogSummary pendingSummary;
+    // Streams every summary, so only while the list is not windowed; the windowed source adds up the store instead
+    @Nullable
+    private CourseDataSource.Registration summaryRegistration;
+    // Latest list from the repository, before hiding courses awaiting their delete
+    private List<Course> latestCourses = Collections.emptyList();
+    // False while latestCourses holds the snapshot from the last launch
+    private boolean coursesLive;
+    private Snackbar undoSnackbar;
+    private final PendingDeletes pendingDeletes = new PendingDeletes(courseRepository, new PendingDeletes.Listener() {
+        @Override
+        public void onPendingChanged(int pendingCount) {
+            if (binding == null) {
+                return;
+            }
+            renderCourses();
+            showUndo(pendingCount);
+        }
+
+        @Override
+        public void onCommitted(int deletedCount) {
+            Log.i(TAG, "deleteCourses: Deleted " + deletedCount + " courses");
+        }
+
+        @Override
+        public void onCommitFailed(int failedCount, @NonNull Exception e) {
+            if (binding != null) {
+                showErrorToUser(failedCount == 1 ? "Failed to delete course" : "Failed to delete " + failedCount + " courses", e);
+            }
+        }
+    });
 
     @Nullable
     @Override
@@ -53,8 +131,11 @@ public class HomeFragment extends Fragment {
         try {
             Log.d(TAG, "onViewCreated: Setting up HomeFragment");
 
+            windowBudget = CourseWindowBudget.from(requireContext());
+            requireContext().registerComponentCallbacks(trimCallbacks);
             setupRecyclerView();
             setupClickListeners();
+            showSnapshot();
             observeCourses();
         } catch (Exception e) {
             Log.e(TAG, "onViewCreated: Error setting up view", e);
@@ -65,29 +146,54 @@ public class HomeFragment extends Fragment {
     private void setupRecyclerView() {
         try {
             Log.d(TAG, "setupRecyclerView: Setting up RecyclerView");
-            courseAdapter = new CourseAdapter(
-                    course -> {
-                        try {
-                            Log.d(TAG, "Edit clicked for course: " + course.getCourseName());
-                            navigateToEditCourse(course);
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error handling edit click", e);
-                            showErrorToUser("Error opening edit screen", e);
-                        }
-                    },
-                    course -> {
-                        try {
-                            Log.d(TAG, "Delete clicked for course: " + course.getCourseName());
-                            showDeleteConfirmationDialog(course);
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error handling delete click", e);
-                            showErrorToUser("Error processing delete request", e);
-                        }
-                    }
-            );
+            CourseAdapter.OnEditClickListener onEditClick = course -> {
+                try {
+                    Log.d(TAG, "Edit clicked for course: " + course.getCourseName());
+                    navigateToEditCourse(course);
+                } catch (Exception e) {
+                    Log.e(TAG, "Error handling edit click", e);
+                    showErrorToUser("Error opening edit screen", e);
+                }
+            };
+            CourseAdapter.OnDeleteClickListener onDeleteClick = course -> {
+                try {
+                    Log.d(TAG, "Delete clicked for course: " + course.getCourseName());
+                    pendingDeletes.add(course);
+                } catch (Exception e) {
+                    Log.e(TAG, "Error handling delete click", e);
+                    showErrorToUser("Error processing delete request", e);
+                }
+            };
+            courseAdapter = new CourseAdapter(onEditClick, onDeleteClick);
+            courseAdapter.setOnRowBoundListener(courseRepository.getWriteTraces()::onRowBound);
+            windowedAdapter = new WindowedCourseAdapter(onEditClick, onDeleteClick);
+            windowedAdapter.setOnRowBoundListener(courseRepository.getWriteTraces()::onRowBound);
 
             binding.recyclerViewCourses.setAdapter(courseAdapter);
             binding.recyclerViewCourses.setLayoutManager(new LinearLayoutManager(getContext()));
+            // Rows come pre-inflated from the activity's pool instead of on the first frame
+            ((MainActivity) requireActivity()).getCourseViewPool().attach(binding.recyclerViewCourses, courseAdapter);
+            binding.recyclerViewCourses.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                    // Frames drawn while the list moves are reported under these tags
+                    if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                        PerformanceReport.removeState(recyclerView, PerformanceReport.STATE_COURSE_LIST);
+                    } else {
+                        PerformanceReport.putState(recyclerView, PerformanceReport.STATE_COURSE_LIST,
+                                newState == RecyclerView.SCROLL_STATE_DRAGGING ? "scrolling" : "flinging");
+                    }
+                }
+
+                @Override
+                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                    if (windowedSource != null) {
+                        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                        windowedSource.onVisibleRangeChanged(layoutManager.findFirstVisibleItemPosition(),
+                                layoutManager.findLastVisibleItemPosition());
+                    }
+                }
+            });
             Log.d(TAG, "setupRecyclerView: RecyclerView setup complete");
         } catch (Exception e) {
             Log.e(TAG, "setupRecyclerView: Error setting up RecyclerView", e);
@@ -107,6 +213,13 @@ public class HomeFragment extends Fragment {
                     showErrorToUser("Error opening add course screen", e);
                 }
             });
+            if (BuildConfig.DEBUG) {
+                // Hidden entry to the repository metrics screen in debug builds
+                binding.tvCatalogSummary.setOnLongClickListener(v -> {
+                    NavHostFragment.findNavController(this).navigate(R.id.metricsFragment);
+                    return true;
+                });
+            }
         } catch (Exception e) {
             Log.e(TAG, "setupClickListeners: Error setting up click listeners", e);
             showErrorToUser("Error setting up buttons", e);
@@ -116,46 +229,250 @@ public class HomeFragment extends Fragment {
     private void observeCourses() {
         try {
             Log.d(TAG, "observeCourses: Starting to observe courses");
+            if (isWindowedPreferred()) {
+                showWindowed();
+            } else {
+                collectCourses();
+                observeCatalogSummary();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "observeCourses: Error setting up course observation", e);
+            showErrorToUser("Error initializing course loading", e);
+        }
+    }
 
-            coursesListener = courseRepository.observeAllCourses(new CourseRepository.CoursesListener() {
-                @Override
-                public void onCoursesUpdated(@NonNull List<Course> courses) {
-                    try {
-                        Log.d(TAG, "observeCourses: Received " + courses.size() + " courses");
+    /** Shows the rows rendered on the last launch until live data replaces them. */
+    private void showSnapshot() {
+        snapshot = CourseSnapshot.getInstance(requireContext());
+        List<Course> courses;
+        // A few kilobytes, mapped rather than read; waiting for Firebase costs far more frames
+        StrictMode.ThreadPolicy policy = StrictMode.allowThreadDiskReads();
+        try {
+            courses = snapshot.read();
+        } finally {
+            StrictMode.setThreadPolicy(policy);
+        }
+        if (courses.isEmpty()) {
+            return;
+        }
+        Log.d(TAG, "showSnapshot: Showing " + courses.size() + " courses from the last launch");
+        latestCourses = courses;
+        coursesLive = false;
+        renderCourses();
+    }
+
+    private void collectCourses() {
+        // Decoded off the main thread; lists that arrive while one is being shown are
+        // merged into the newest, and collection pauses while the view is stopped
+        coursesJob = CourseRepositoryFlows.collectWhileStarted(
+                getViewLifecycleOwner(),
+                CourseRepositoryFlows.coursesFlow(courseRepository),
+                this::showCourses,
+                error -> {
+                    Log.e(TAG, "observeCourses: Error loading courses from database", error);
+                    showErrorToUser("Error loading courses from database", error);
+                });
+    }
 
+    /**
+     * Replaces the in-memory list with one read from disk a window at a time. The catalog
+     * summary reports the total first, so the switch happens before the list is kept around.
+     */
+    private void showWindowed() {
+        Log.i(TAG, "showWindowed: Windowing the course list, in-memory limit " + windowBudget.getMaxInMemoryCourses());
+        if (coursesJob != null) {
+            coursesJob.cancel((CancellationException) null);
+            coursesJob = null;
+            summaryRegistration = null;
+        }
+        stopCatalogSummary();
+        latestCourses = Collections.emptyList();
+        coursesLive = false;
+        windowedSource = new WindowedCourseSource(requireContext(), courseRepository, windowBudget,
+                new WindowedCourseSource.Listener() {
+                    @Override
+                    public void onCountChanged(int count) {
                         if (binding == null) {
-                            Log.d(TAG, "observeCourses: Fragment binding is null, skipping UI update");
                             return;
                         }
+                        if (binding.recyclerViewCourses.getAdapter() != windowedAdapter) {
+                            // The rows shown until now were the plain list's; swap once the store has answered
+                            binding.recyclerViewCourses.setAdapter(windowedAdapter);
+                            ((MainActivity) requireActivity()).getCourseViewPool().attach(binding.recyclerViewCourses, windowedAdapter);
+                            courseAdapter.submitList(null);
+                        }
+                        courseRepository.getWriteTraces().onListSubmitted(windowedSource.getWindow());
+                        windowedAdapter.onCountChanged();
+                        showEmptyState(count == 0);
+                        if (windowedSource.getWindowStart() == 0) {
+                            snapshot.save(windowedSource.getWindow());
+                        }
+                    }
 
-                        courseAdapter.submitList(courses);
-
-                        if (courses.isEmpty()) {
-                            binding.recyclerViewCourses.setVisibility(View.GONE);
-                            binding.tvEmptyState.setVisibility(View.VISIBLE);
-                            Log.d(TAG, "observeCourses: Showing empty state");
-                        } else {
-                            binding.recyclerViewCourses.setVisibility(View.VISIBLE);
-                            binding.tvEmptyState.setVisibility(View.GONE);
-                            Log.d(TAG, "observeCourses: Showing course list");
+                    @Override
+                    public void onRangeLoaded(int start, int count) {
+                        if (binding != null) {
+                            courseRepository.getWriteTraces().onListSubmitted(windowedSource.getWindow());
+                            windowedAdapter.onRangeLoaded(start, count);
                         }
-                    } catch (Exception e) {
-                        Log.e(TAG, "observeCourses: Error updating UI with courses", e);
+                    }
+
+                    @Override
+                    public void onSummaryChanged(@NonNull CatalogSummary summary) {
+                        showCatalogSummary(summary);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
                         if (binding != null) {
-                            showErrorToUser("Error displaying courses", e);
+                            showErrorToUser("Error loading courses from database", e);
                         }
                     }
+                });
+        windowedSource.start(getViewLifecycleOwner());
+        windowedSource.setHidden(pendingDeletes.getHiddenIds());
+        windowedAdapter.setSource(windowedSource);
+    }
+
+    private void showList() {
+        Log.i(TAG, "showList: Catalog fits in memory again, back to the plain list");
+        closeWindowedSource();
+        binding.recyclerViewCourses.setAdapter(courseAdapter);
+        ((MainActivity) requireActivity()).getCourseViewPool().attach(binding.recyclerViewCourses, courseAdapter);
+        collectCourses();
+        observeCatalogSummary();
+    }
+
+    private void closeWindowedSource() {
+        if (windowedSource != null) {
+            windowedSource.close();
+            windowedSource = null;
+            windowedAdapter.setSource(null);
+        }
+    }
+
+    // Half the limit on the way back, so a catalog near the limit does not flip on every change
+    private void updateListMode(int totalCourses) {
+        if (windowedSource == null && totalCourses > windowBudget.getMaxInMemoryCourses()) {
+            setWindowedPreferred(true);
+            showWindowed();
+        } else if (windowedSource != null && totalCourses < windowBudget.getMaxInMemoryCourses() / 2) {
+            setWindowedPreferred(false);
+            showList();
+        }
+    }
+
+    private boolean isWindowedPreferred() {
+        return requireContext().getSharedPreferences(PREFS_COURSE_LIST, Context.MODE_PRIVATE)
+                .getBoolean(PREF_WINDOWED, false);
+    }
+
+    private void setWindowedPreferred(boolean windowed) {
+        requireContext().getSharedPreferences(PREFS_COURSE_LIST, Context.MODE_PRIVATE)
+                .edit()
+                .putBoolean(PREF_WINDOWED, windowed)
+                .apply();
+    }
+
+    private void showCourses(@NonNull List<Course> courses) {
+        Log.d(TAG, "observeCourses: Received " + courses.size() + " courses");
+        latestCourses = courses;
+        coursesLive = true;
+        renderCourses();
+    }
+
+    private void renderCourses() {
+        try {
+            if (windowedSource != null) {
+                windowedSource.setHidden(pendingDeletes.getHiddenIds());
+                return;
+            }
+            List<Course> courses = pendingDeletes.filter(latestCourses);
+            final View root = binding.getRoot();
+            PerformanceReport.putState(root, PerformanceReport.STATE_LIST_UPDATE, "submitting");
+            courseAdapter.submitList(courses, () -> {
+                PerformanceReport.removeState(root, PerformanceReport.STATE_LIST_UPDATE);
+                courseRepository.getWriteTraces().onListSubmitted(courses);
+            });
+            if (!coursesLive) {
+                // Only live data can say the catalog is empty
+                return;
+            }
+            showEmptyState(courses.isEmpty());
+            snapshot.save(courses);
+        } catch (Exception e) {
+            Log.e(TAG, "observeCourses: Error updating UI with courses", e);
+            showErrorToUser("Error displaying courses", e);
+        }
+    }
+
+    private void showEmptyState(boolean empty) {
+        if (empty) {
+            binding.recyclerViewCourses.setVisibility(View.GONE);
+            binding.tvEmptyState.setVisibility(View.VISIBLE);
+            Log.d(TAG, "observeCourses: Showing empty state");
+        } else {
+            binding.recyclerViewCourses.setVisibility(View.VISIBLE);
+            binding.tvEmptyState.setVisibility(View.GONE);
+            Log.d(TAG, "observeCourses: Showing course list");
+        }
+    }
+
+    private void observeCatalogSummary() {
+        try {
+            Log.d(TAG, "observeCatalogSummary: Starting to observe catalog summary");
+
+            summaryRegistration = courseRepository.observeCatalogSummary(getViewLifecycleOwner(), new CourseRepository.SummaryListener() {
+                @Override
+                public void onSummaryUpdated(@NonNull CatalogSummary summary) {
+                    showCatalogSummary(summary);
                 }
 
                 @Override
                 public void onError(@NonNull Exception e) {
-                    Log.e(TAG, "observeCourses: Error loading courses from database", e);
-                    showErrorToUser("Error loading courses from database", e);
+                    Log.e(TAG, "observeCatalogSummary: Error loading catalog summary", e);
                 }
             });
         } catch (Exception e) {
-            Log.e(TAG, "observeCourses: Error setting up course observation", e);
-            showErrorToUser("Error initializing course loading", e);
+            Log.e(TAG, "observeCatalogSummary: Error setting up summary observation", e);
+        }
+    }
+
+    private void stopCatalogSummary() {
+        if (summaryRegistration != null) {
+            summaryRegistration.remove();
+            summaryRegistration = null;
+        }
+    }
+
+    private void showCatalogSummary(@NonNull CatalogSummary summary) {
+        if (binding == null) {
+            Log.d(TAG, "observeCatalogSummary: Fragment binding is null, skipping UI update");
+            return;
+        }
+        boolean renderPending = pendingSummary != null;
+        pendingSummary = summary;
+        if (!renderPending) {
+            binding.tvCatalogSummary.post(this::renderCatalogSummary);
+        }
+    }
+
+    private void renderCatalogSummary() {
+        CatalogSummary summary = pendingSummary;
+        pendingSummary = null;
+        if (binding == null || summary == null) {
+            return;
+        }
+        try {
+            String text = summary.getTotalCourses() + " courses · " + summary.getTotalCreditHours() + " credit hours\n"
+                    + CourseType.THEORY.getLabel() + ": " + summary.getCourseCount(CourseType.THEORY)
+                    + " (" + summary.getCreditHours(CourseType.THEORY) + " cr) · "
+                    + CourseType.LAB.getLabel() + ": " + summary.getCourseCount(CourseType.LAB)
+                    + " (" + summary.getCreditHours(CourseType.LAB) + " cr)";
+            binding.tvCatalogSummary.setText(text);
+            updateListMode(summary.getTotalCourses());
+        } catch (Exception e) {
+            Log.e(TAG, "renderCatalogSummary: Error displaying catalog summary", e);
         }
     }
 
@@ -189,50 +506,25 @@ public class HomeFragment extends Fragment {
         }
     }
 
-    private void showDeleteConfirmationDialog(@NonNull Course course) {
-        try {
-            Log.d(TAG, "showDeleteConfirmationDialog: Showing delete confirmation for: " + course.getCourseName());
-            new AlertDialog.Builder(requireContext())
-                    .setTitle("Delete Course")
-                    .setMessage("Are you sure you want to delete \"" + course.getCourseName() + "\"?\n\nThis action cannot be undone.")
-                    .setPositiveButton("Delete", (dialog, which) -> {
-                        try {
-                            Log.d(TAG, "showDeleteConfirmationDialog: User confirmed deletion");
-                            deleteCourse(course);
-                        } catch (Exception e) {
-                            Log.e(TAG, "showDeleteConfirmationDialog: Error in delete confirmation", e);
-                            showErrorToUser("Error processing delete confirmation", e);
-                        }
-                    })
-                    .setNegativeButton("Cancel", (dialog, which) -> Log.d(TAG, "showDeleteConfirmationDialog: User cancelled deletion"))
-                    .setIcon(android.R.drawable.ic_dialog_alert)
-                    .show();
-        } catch (Exception e) {
-            Log.e(TAG, "showDeleteConfirmationDialog: Error showing confirmation dialog", e);
-            showErrorToUser("Error showing delete confirmation", e);
+    private void showUndo(int pendingCount) {
+        if (pendingCount == 0) {
+            if (undoSnackbar != null) {
+                undoSnackbar.dismiss();
+                undoSnackbar = null;
+            }
+            return;
         }
-    }
-
-    private void deleteCourse(@NonNull Course course) {
-        try {
-            Log.d(TAG, "deleteCourse: Starting deletion process for: " + course.getCourseName());
-            courseRepository.deleteCourse(course.getId(), new CourseRepository.OperationCallback<Void>() {
-                @Override
-                public void onSuccess(Void result) {
-                    Log.i(TAG, "deleteCourse: Course deleted successfully");
-                    Toast.makeText(getContext(), "Course deleted successfully", Toast.LENGTH_SHORT).show();
-                }
-
-                @Override
-                public void onError(@NonNull Exception e) {
-                    Log.e(TAG, "deleteCourse: Failed to delete course", e);
-                    showErrorToUser("Failed to delete course", e);
-                }
-            });
-        } catch (Exception e) {
-            Log.e(TAG, "deleteCourse: Critical error in delete function", e);
-            showErrorToUser("Critical error in delete process", e);
+        String message = pendingCount == 1 ? "Course deleted" : pendingCount + " courses deleted";
+        if (undoSnackbar != null && undoSnackbar.isShownOrQueued()) {
+            // Restart the visible countdown together with the undo window
+            undoSnackbar.setText(message);
+            undoSnackbar.setDuration(PendingDeletes.UNDO_WINDOW_MS);
+            undoSnackbar.show();
+            return;
         }
+        undoSnackbar = Snackbar.make(binding.getRoot(), message, PendingDeletes.UNDO_WINDOW_MS)
+                .setAction("Undo", v -> pendingDeletes.undoAll());
+        undoSnackbar.show();
     }
 
     private void showErrorToUser(@NonNull String message, @Nullable Throwable exception) {
@@ -245,15 +537,26 @@ public class HomeFragment extends Fragment {
         }
     }
 
+    @Override
+    public void onStop() {
+        super.onStop();
+        // Queued deletes go out now rather than waiting on a window nobody can see
+        pendingDeletes.commit();
+    }
+
     @Override
     public void onDestroyView() {
         try {
             Log.d(TAG, "onDestroyView: Cleaning up HomeFragment");
             super.onDestroyView();
-            if (coursesListener != null) {
-                courseRepository.removeCoursesListener(coursesListener);
-                coursesListener = null;
-            }
+            ((MainActivity) requireActivity()).getCourseViewPool().detach();
+            requireContext().unregisterComponentCallbacks(trimCallbacks);
+            closeWindowedSource();
+            // The remaining subscriptions are bound to the view lifecycle and removed with it
+            coursesJob = null;
+            summaryRegistration = null;
+            pendingSummary = null;
+            undoSnackbar = null;
             binding = null;
         } catch (Exception e) {
             Log.e(TAG, "onDestroyView: Error during cleanup", e);
@@ -0,0 +1,132 @@
+package com.example.coursemanagement.ui.home;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.repository.CourseRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Courses deleted from the list but not yet from the database. Each delete hides its course
+ * at once and restarts the undo window; when the window closes, everything queued goes out
+ * in a single {@link CourseRepository#deleteCourses} write. Main thread only.
+ */
+final class PendingDeletes {
+
+    private static final String TAG = "PendingDeletes";
+
+    static final int UNDO_WINDOW_MS = 4000;
+
+    interface Listener {
+        /** The undoable deletes changed: one was queued, undone or committed, or a commit failed. */
+        void onPendingChanged(int pendingCount);
+
+        void onCommitted(int deletedCount);
+
+        void onCommitFailed(int failedCount, @NonNull Exception e);
+    }
+
+    private final CourseRepository repository;
+    private final Listener listener;
+    private final Map<String, Course> pending = new LinkedHashMap<>();
+    // Sent to the database, no longer undoable, hidden until the write completes
+    private final Map<String, Course> committing = new HashMap<>();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable commitRunnable = this::commit;
+
+    PendingDeletes(@NonNull CourseRepository repository, @NonNull Listener listener) {
+        this.repository = repository;
+        this.listener = listener;
+    }
+
+    void add(@NonNull Course course) {
+        pending.put(course.getId(), course);
+        handler.removeCallbacks(commitRunnable);
+        handler.postDelayed(commitRunnable, UNDO_WINDOW_MS);
+        Log.d(TAG, "add: Queued " + course.getCourseName() + ", " + pending.size() + " pending");
+        listener.onPendingChanged(pending.size());
+    }
+
+    void undoAll() {
+        handler.removeCallbacks(commitRunnable);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Log.d(TAG, "undoAll: Restoring " + pending.size() + " courses");
+        pending.clear();
+        listener.onPendingChanged(0);
+    }
+
+    /** {@code courses} without the hidden ones; the same list when nothing is hidden. */
+    @NonNull
+    List<Course> filter(@NonNull List<Course> courses) {
+        if (pending.isEmpty() && committing.isEmpty()) {
+            return courses;
+        }
+        List<Course> visible = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            if (!pending.containsKey(course.getId()) && !committing.containsKey(course.getId())) {
+                visible.add(course);
+            }
+        }
+        return visible;
+    }
+
+    /** Ids of every hidden course, for lists that filter on their own. */
+    @NonNull
+    Set<String> getHiddenIds() {
+        Set<String> ids = new HashSet<>(pending.keySet());
+        ids.addAll(committing.keySet());
+        return ids;
+    }
+
+    /** Closes the undo window now; call when the list goes away so queued deletes are not lost. */
+    void commit() {
+        handler.removeCallbacks(commitRunnable);
+        if (pending.isEmpty()) {
+            return;
+        }
+        final List<Course> batch = new ArrayList<>(pending.values());
+        committing.putAll(pending);
+        pending.clear();
+        listener.onPendingChanged(0);
+        Log.d(TAG, "commit: Deleting " + batch.size() + " courses");
+        repository.deleteCourses(batch, new CourseRepository.OperationCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                handler.post(() -> {
+                    // The local write has already removed them from the list being shown
+                    forget(batch);
+                    listener.onCommitted(batch.size());
+                });
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.e(TAG, "commit: Failed to delete " + batch.size() + " courses", e);
+                handler.post(() -> {
+                    forget(batch);
+                    listener.onPendingChanged(pending.size());
+                    listener.onCommitFailed(batch.size(), e);
+                });
+            }
+        });
+    }
+
+    private void forget(@NonNull List<Course> batch) {
+        for (Course course : batch) {
+            committing.remove(course.getId());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocks a test on one repository or data source operation. An error ends the wait at
+ * once and is rethrown with its cause, instead of surfacing as a timeout.
+ */
+final class BlockingCallback<T> implements CourseRepository.OperationCallback<T> {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile T result;
+    private volatile Exception error;
+
+    @Override
+    public void onSuccess(T result) {
+        this.result = result;
+        done.countDown();
+    }
+
+    @Override
+    public void onError(@NonNull Exception e) {
+        error = e;
+        done.countDown();
+    }
+
+    /** The result, or an AssertionError carrying the operation's failure. */
+    T await() throws InterruptedException {
+        awaitDone();
+        if (error != null) {
+            throw new AssertionError("Operation failed: " + error.getMessage(), error);
+        }
+        return result;
+    }
+
+    /** The failure of an operation expected to fail. */
+    @NonNull
+    Exception awaitError() throws InterruptedException {
+        awaitDone();
+        if (error == null) {
+            throw new AssertionError("Operation succeeded with " + result + ", expected a failure");
+        }
+        return error;
+    }
+
+    private void awaitDone() throws InterruptedException {
+        if (!done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new AssertionError("Operation did not complete within " + TIMEOUT_SECONDS + "s");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.Test;
+
+public class CatalogAggregatorTest {
+
+    @Test
+    public void totalsFollowAddsChangesAndRemovals() {
+        CatalogAggregator aggregator = new CatalogAggregator();
+        aggregator.onAdded(course("a", 3, CourseType.THEORY));
+        aggregator.onAdded(course("b", 1, CourseType.LAB));
+        aggregator.onChanged(course("a", 4, CourseType.LAB));
+
+        CatalogSummary summary = aggregator.snapshot();
+        assertEquals(0, summary.getCourseCount(CourseType.THEORY));
+        assertEquals(2, summary.getCourseCount(CourseType.LAB));
+        assertEquals(5, summary.getCreditHours(CourseType.LAB));
+
+        aggregator.onRemoved("b");
+        aggregator.onRemoved("missing");
+        summary = aggregator.snapshot();
+        assertEquals(1, summary.getTotalCourses());
+        assertEquals(4, summary.getTotalCreditHours());
+    }
+
+    @Test
+    public void readdedIdReplacesItsEarlierContribution() {
+        CatalogAggregator aggregator = new CatalogAggregator();
+        aggregator.onAdded(course("a", 3, CourseType.THEORY));
+        aggregator.onAdded(course("a", 3, CourseType.THEORY));
+
+        assertEquals(1, aggregator.snapshot().getTotalCourses());
+        assertEquals(3, aggregator.snapshot().getTotalCreditHours());
+    }
+
+    private static Course course(String id, int creditHours, CourseType type) {
+        return new Course(id, "Course " + id, "CS-" + id, creditHours, type, 0L);
+    }
+}
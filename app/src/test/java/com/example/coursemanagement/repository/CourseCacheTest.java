@@ -0,0 +1,61 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.Test;
+
+public class CourseCacheTest {
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedFirst() {
+        CourseCache cache = new CourseCache(2, Long.MAX_VALUE);
+        cache.put(course("a"));
+        cache.put(course("b"));
+        cache.get("a");
+        cache.put(course("c"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void byteBoundEvictsAndTracksRetainedSize() {
+        long perCourse = CourseCache.estimateBytes(course("a"));
+        CourseCache cache = new CourseCache(100, perCourse * 2);
+        cache.put(course("a"));
+        cache.put(course("b"));
+        cache.put(course("c"));
+
+        assertEquals(2, cache.size());
+        assertEquals(perCourse * 2, cache.getEstimatedBytes());
+        cache.invalidate("c");
+        assertEquals(perCourse, cache.getEstimatedBytes());
+    }
+
+    @Test
+    public void readStartedBeforeAnInvalidationIsNotCached() {
+        CourseCache cache = new CourseCache(10, Long.MAX_VALUE);
+        long readStamp = cache.stamp();
+        cache.invalidate("a");
+        cache.putIfUnchangedSince(course("a"), readStamp);
+        assertNull(cache.get("a"));
+
+        cache.putIfUnchangedSince(course("a"), cache.stamp());
+        assertNotNull(cache.get("a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void boundsMustBePositive() {
+        new CourseCache(0, 1024);
+    }
+
+    private static Course course(String id) {
+        return new Course(id, "Course " + id, "CS-" + id, 3, CourseType.THEORY, 0L);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CourseCatalogTest {
+
+    @Test
+    public void keyOrderedChildrenAreReversedNewestFirst() {
+        CourseCatalog.Builder builder = new CourseCatalog.Builder(CourseCatalog.EMPTY, 3);
+        builder.add(course("-a", "Statics"));
+        builder.add(course("-b", "Optics"));
+        builder.add(course("-c", "Compilers"));
+
+        assertTrue(builder.orderNewestFirst());
+        assertEquals(Arrays.asList("-c", "-b", "-a"), ids(builder.build().getCourses()));
+    }
+
+    @Test
+    public void unorderedChildrenAreSortedAndReported() {
+        CourseCatalog.Builder builder = new CourseCatalog.Builder(CourseCatalog.EMPTY, 3);
+        builder.add(course("-b", "Optics"));
+        builder.add(course("-a", "Statics"));
+        builder.add(course("-c", "Compilers"));
+
+        assertFalse(builder.orderNewestFirst());
+        assertEquals(Arrays.asList("-c", "-b", "-a"), ids(builder.build().getCourses()));
+    }
+
+    @Test
+    public void unchangedCoursesKeepTheirInstances() {
+        CourseCatalog first = build(course("-a", "Statics"), course("-b", "Optics"));
+
+        assertSame(first, build(first, course("-a", "Statics"), course("-b", "Optics")));
+
+        CourseCatalog renamed = build(first, course("-a", "Statics"), course("-b", "Wave Optics"));
+        assertNotSame(first, renamed);
+        assertSame(first.get("-a"), renamed.get("-a"));
+        assertEquals("Wave Optics", renamed.get("-b").getCourseName());
+    }
+
+    private static CourseCatalog build(Course... courses) {
+        return build(CourseCatalog.EMPTY, courses);
+    }
+
+    private static CourseCatalog build(CourseCatalog previous, Course... courses) {
+        CourseCatalog.Builder builder = new CourseCatalog.Builder(previous, courses.length);
+        for (Course course : courses) {
+            builder.add(course);
+        }
+        builder.orderNewestFirst();
+        return builder.build();
+    }
+
+    private static Course course(String id, String name) {
+        return new Course(id, name, "CS-" + id, 3, CourseType.THEORY, 0L);
+    }
+
+    private static List<String> ids(List<Course> courses) {
+        String[] ids = new String[courses.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = courses.get(i).getId();
+        }
+        return Arrays.asList(ids);
+    }
+}
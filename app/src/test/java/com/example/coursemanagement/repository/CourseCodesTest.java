@@ -0,0 +1,19 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CourseCodesTest {
+
+    @Test
+    public void codesAreTrimmedAndUpperCased() {
+        assertEquals(CourseCodes.indexKey("CS-101"), CourseCodes.indexKey("  cs-101 "));
+    }
+
+    @Test
+    public void charactersFirebaseForbidsInKeysAreEncoded() {
+        assertEquals("CS%2E101%2FA%23%24%5B%5D%25", CourseCodes.indexKey("cs.101/a#$[]%"));
+        assertEquals(CourseCodes.INDEX_PATH + "/MATH%2E2", CourseCodes.indexPath("math.2"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.coursemanagement.repository
+
+import com.example.coursemanagement.model.Course
+import com.example.coursemanagement.model.CourseType
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+
+class CourseRepositoryFlowsTest {
+
+    private lateinit var dataSource: InMemoryCourseDataSource
+
+    @Before
+    fun setUp() {
+        dataSource = InMemoryCourseDataSource.Builder()
+            .latency(0, 2)
+            .seed(42L)
+            .build()
+    }
+
+    @After
+    fun tearDown() {
+        dataSource.shutdown()
+    }
+
+    @Test
+    fun slowCollectorReceivesOnlyTheNewestList() = runBlocking {
+        val repository = CourseRepository(dataSource)
+        val received = Channel<List<Course>>(Channel.UNLIMITED)
+        val busy = CompletableDeferred<Unit>()
+        // No display frames on the JVM; the collector holds on to the first list until released,
+        // as one stuck in a long frame would
+        val collector = launch(Dispatchers.Default) {
+            repository.coursesFlow {}.collect { courses ->
+                received.send(courses)
+                busy.await()
+            }
+        }
+        assertEquals(0, withTimeout(5_000) { received.receive() }.size)
+
+        val seen = RecordingCoursesListener()
+        val registration = repository.observeAllCourses(seen)
+        for (i in 1..5) {
+            repository.addCourse(Course("", "Course $i", "CS-10$i", 3, CourseType.THEORY, 0L))
+        }
+        seen.awaitList(5_000) { courses -> courses.size == 5 }
+        // Give the flow time to decode the last snapshot as well
+        delay(200)
+        busy.complete(Unit)
+
+        assertEquals(5, withTimeout(5_000) { received.receive() }.size)
+        delay(200)
+        assertNull(received.tryReceive().getOrNull())
+
+        collector.cancel()
+        repository.removeCoursesListener(registration)
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CourseRepositoryLoadTest {
+
+    private InMemoryCourseDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        dataSource = new InMemoryCourseDataSource.Builder()
+                .latency(0, 2)
+                .seed(42L)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    public void writesFromOneClientReachAnotherClientsListener() throws Exception {
+        final int count = 2000;
+        CourseRepository writer = new CourseRepository(dataSource);
+        CourseRepository reader = new CourseRepository(dataSource);
+
+        RecordingCoursesListener listener = new RecordingCoursesListener();
+        CourseDataSource.Registration registration = reader.observeAllCourses(listener);
+
+        List<BlockingCallback<String>> acks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BlockingCallback<String> ack = new BlockingCallback<>();
+            writer.addCourse(new Course("", "Course " + i, "CS-" + i, 3, CourseType.THEORY, 0L), ack);
+            acks.add(ack);
+        }
+        for (BlockingCallback<String> ack : acks) {
+            ack.await();
+        }
+
+        List<Course> seen = listener.awaitList(30_000, courses -> courses.size() == count);
+        assertEquals(count, seen.size());
+        registration.remove();
+    }
+}
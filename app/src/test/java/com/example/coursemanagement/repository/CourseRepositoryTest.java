@@ -0,0 +1,217 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CourseRepositoryTest {
+
+    private InMemoryCourseDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        dataSource = new InMemoryCourseDataSource.Builder()
+                .latency(0, 2)
+                .seed(42L)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    public void simulatedFailureSurfacesAsOperationError() throws Exception {
+        CourseRepository repository = new CourseRepository(dataSource);
+        dataSource.failNextOperations(1);
+
+        BlockingCallback<String> add = new BlockingCallback<>();
+        repository.addCourse(new Course("", "Algorithms", "CS-301", 3, CourseType.THEORY, 0L), add);
+
+        assertTrue(add.awaitError().getMessage().startsWith("Failed to add course"));
+    }
+
+    @Test
+    public void concurrentLookupsOfOneCourseShareOneRead() throws Exception {
+        InMemoryCourseDataSource slow = new InMemoryCourseDataSource.Builder()
+                .latency(20, 20)
+                .seed(7L)
+                .build();
+        try {
+            CourseRepository repository = new CourseRepository(slow);
+            BlockingCallback<String> add = new BlockingCallback<>();
+            repository.addCourse(new Course("", "Compilers", "CS-420", 3, CourseType.THEORY, 0L), add);
+            String id = add.await();
+
+            final int lookups = 10;
+            List<BlockingCallback<Course>> found = new ArrayList<>(lookups);
+            int operationsBefore = slow.getOperationCount();
+            for (int i = 0; i < lookups; i++) {
+                BlockingCallback<Course> lookup = new BlockingCallback<>();
+                repository.getCourseById(id, lookup);
+                found.add(lookup);
+            }
+
+            for (BlockingCallback<Course> lookup : found) {
+                assertEquals("Compilers", lookup.await().getCourseName());
+            }
+            assertEquals(1, slow.getOperationCount() - operationsBefore);
+            assertEquals(lookups - 1, repository.getMetrics().getCoalescedReads());
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    public void batchDeleteRemovesEveryCourseInOneWrite() throws Exception {
+        CourseRepository repository = new CourseRepository(dataSource);
+        List<Course> added = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Course course = new Course("", "Course " + i, "EE-" + i, 3, CourseType.THEORY, 0L);
+            BlockingCallback<String> add = new BlockingCallback<>();
+            repository.addCourse(course, add);
+            added.add(course.withId(add.await()));
+        }
+
+        BlockingCallback<Void> delete = new BlockingCallback<>();
+        int operationsBefore = dataSource.getOperationCount();
+        repository.deleteCourses(added.subList(0, 2), delete);
+        delete.await();
+
+        String[] paths = {CourseRepository.COURSES_PATH, CourseRepository.SUMMARIES_PATH, CourseCodes.INDEX_PATH};
+        for (String path : paths) {
+            BlockingCallback<Object> read = new BlockingCallback<>();
+            dataSource.read(path, read);
+            assertEquals(path, 1, ((Map<?, ?>) read.await()).size());
+        }
+        // One update, then a code release per course, which run in order before the reads
+        assertEquals(1 + 2 + paths.length, dataSource.getOperationCount() - operationsBefore);
+    }
+
+    @Test
+    public void addedCoursesAreStampedByTheServerAndListedNewestFirst() throws Exception {
+        CourseRepository repository = new CourseRepository(dataSource);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            BlockingCallback<String> add = new BlockingCallback<>();
+            repository.addCourse(new Course("", "Course " + i, "ME-" + i, 3, CourseType.THEORY, 0L), add);
+            ids.add(add.await());
+        }
+
+        RecordingCoursesListener listener = new RecordingCoursesListener();
+        CourseDataSource.Registration registration = repository.observeAllCourses(listener);
+        List<Course> courses = listener.awaitList(5000, list -> list.size() == 3);
+        registration.remove();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ids.get(2 - i), courses.get(i).getId());
+            assertTrue("timestamp was not set by the data source", courses.get(i).getTimestamp() > 0);
+        }
+    }
+
+    @Test
+    public void codeHeldByAnotherCourseRejectsTheWholeWrite() throws Exception {
+        CourseRepository first = new CourseRepository(dataSource);
+        // Writes straight through, with no code check beforehand
+        CourseRepository second = new CourseRepository(dataSource);
+        BlockingCallback<String> add = new BlockingCallback<>();
+        first.addCourse(new Course("", "Optics", "PH-210", 3, CourseType.THEORY, 0L), add);
+        String id = add.await();
+
+        BlockingCallback<String> duplicate = new BlockingCallback<>();
+        second.addCourse(new Course("", "Wave Optics", "ph-210", 3, CourseType.THEORY, 0L), duplicate);
+        assertTrue(duplicate.awaitError().getMessage().contains("Course code already exists"));
+
+        BlockingCallback<Object> courses = new BlockingCallback<>();
+        dataSource.read(CourseRepository.COURSES_PATH, courses);
+        assertEquals(Collections.singleton(id), ((Map<?, ?>) courses.await()).keySet());
+    }
+
+    @Test
+    public void codeCheckReadsTheServerIndex() throws Exception {
+        CourseRepository first = new CourseRepository(dataSource);
+        CourseRepository second = new CourseRepository(dataSource);
+        BlockingCallback<String> add = new BlockingCallback<>();
+        first.addCourse(new Course("", "Optics", "PH-210", 3, CourseType.THEORY, 0L), add);
+        String id = add.await();
+
+        BlockingCallback<Boolean> taken = new BlockingCallback<>();
+        second.isCourseCodeTaken("ph-210", null, taken);
+        assertTrue(taken.await());
+
+        BlockingCallback<Boolean> own = new BlockingCallback<>();
+        second.isCourseCodeTaken("PH-210", id, own);
+        assertFalse(own.await());
+
+        BlockingCallback<Boolean> free = new BlockingCallback<>();
+        second.isCourseCodeTaken("PH-211", null, free);
+        assertFalse(free.await());
+    }
+
+    @Test
+    public void otherRejectionsAreNotReportedAsDuplicateCodes() throws Exception {
+        CourseRepository repository = new CourseRepository(dataSource);
+        dataSource.rejectNextUpdates(1);
+
+        BlockingCallback<String> add = new BlockingCallback<>();
+        repository.addCourse(new Course("", "Optics", "PH-210", 3, CourseType.THEORY, 0L), add);
+        String message = add.awaitError().getMessage();
+        assertTrue(message, message.contains("Simulated permission denied"));
+        assertFalse(message, message.contains("Course code already exists"));
+    }
+
+    @Test
+    public void changingCodeReleasesOnlyAnEntryTheCourseHolds() throws Exception {
+        CourseRepository repository = new CourseRepository(dataSource);
+        BlockingCallback<String> add = new BlockingCallback<>();
+        repository.addCourse(new Course("", "Optics", "PH-210", 3, CourseType.THEORY, 0L), add);
+        String id = add.await();
+
+        BlockingCallback<Void> update = new BlockingCallback<>();
+        repository.updateCourse(new Course(id, "Optics", "PH-211", 3, CourseType.THEORY, 0L), update);
+        update.await();
+        // The old code is released after the write; a second course may now take it
+        BlockingCallback<String> reuse = new BlockingCallback<>();
+        repository.addCourse(new Course("", "Optics II", "PH-210", 3, CourseType.THEORY, 0L), reuse);
+        String reuser = reuse.await();
+
+        BlockingCallback<Object> index = new BlockingCallback<>();
+        dataSource.read(CourseCodes.INDEX_PATH, index);
+        Map<?, ?> codes = (Map<?, ?>) index.await();
+        assertEquals(id, codes.get("PH-211"));
+        assertEquals(reuser, codes.get("PH-210"));
+    }
+
+    @Test
+    public void claimOfADeletedCourseCanBeTakenOver() throws Exception {
+        // An entry left behind when the app died between a delete and its release
+        Map<String, Object> stale = new HashMap<>();
+        stale.put(CourseCodes.indexPath("PH-210"), "-gone");
+        BlockingCallback<Void> written = new BlockingCallback<>();
+        dataSource.update(stale, written);
+        written.await();
+
+        CourseRepository repository = new CourseRepository(dataSource);
+        BlockingCallback<String> add = new BlockingCallback<>();
+        repository.addCourse(new Course("", "Optics", "PH-210", 3, CourseType.THEORY, 0L), add);
+        String id = add.await();
+
+        BlockingCallback<Object> entry = new BlockingCallback<>();
+        dataSource.read(CourseCodes.indexPath("PH-210"), entry);
+        assertEquals(id, entry.await());
+    }
+}
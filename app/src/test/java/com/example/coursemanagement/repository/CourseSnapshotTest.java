@@ -0,0 +1,59 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class CourseSnapshotTest {
+
+    @Test
+    public void snapshotRoundTrips() throws Exception {
+        List<Course> courses = new ArrayList<>();
+        courses.add(new Course("-b", "Thermodynamics \u00e9", "ME-301", 4, CourseType.LAB, 1704067200000L));
+        courses.add(new Course("-a", "Statics", "ME-101", 3, CourseType.THEORY, 1704067100000L));
+
+        assertEquals(courses, CourseSnapshot.decode(ByteBuffer.wrap(CourseSnapshot.encode(courses))));
+        assertEquals(Collections.<Course>emptyList(),
+                CourseSnapshot.decode(ByteBuffer.wrap(CourseSnapshot.encode(Collections.<Course>emptyList()))));
+    }
+
+    @Test
+    public void snapshotOfAnotherVersionIsRejected() {
+        byte[] bytes = CourseSnapshot.encode(Collections.singletonList(
+                new Course("-a", "Statics", "ME-101", 3, CourseType.THEORY, 1704067100000L)));
+        // Same layout under another version number, with a valid checksum
+        ByteBuffer other = ByteBuffer.wrap(bytes);
+        other.putInt(4, CourseSnapshot.VERSION + 1);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        other.putInt(bytes.length - 4, (int) crc.getValue());
+        try {
+            CourseSnapshot.decode(other);
+            fail("Decoded a snapshot of another version");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void corruptedSnapshotIsRejected() {
+        byte[] bytes = CourseSnapshot.encode(Collections.singletonList(
+                new Course("-a", "Statics", "ME-101", 3, CourseType.THEORY, 1704067100000L)));
+        bytes[bytes.length - 5] ^= 1;
+        try {
+            CourseSnapshot.decode(ByteBuffer.wrap(bytes));
+            fail("Decoded a corrupted snapshot");
+        } catch (IOException expected) {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class CourseSyncTest {
+
+    private InMemoryCourseDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        dataSource = new InMemoryCourseDataSource.Builder()
+                .latency(0, 2)
+                .seed(42L)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    public void deletesLeaveTombstonesForDeltaReads() throws Exception {
+        CourseRepository repository = new CourseRepository(dataSource);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            BlockingCallback<String> add = new BlockingCallback<>();
+            repository.addCourse(new Course("", "Course " + i, "SE-" + i, 3, CourseType.THEORY, 0L), add);
+            ids.add(add.await());
+        }
+        long afterWrites = System.currentTimeMillis() + 1;
+
+        BlockingCallback<Void> delete = new BlockingCallback<>();
+        repository.deleteCourse(ids.get(0), delete);
+        delete.await();
+
+        assertEquals(Collections.singleton(ids.get(1)),
+                readByChild(CourseRepository.SUMMARIES_PATH, 0L).keySet());
+        assertTrue(readByChild(CourseRepository.SUMMARIES_PATH, afterWrites).isEmpty());
+        assertEquals(Collections.singleton(ids.get(0)),
+                readByChild(CourseRepository.TOMBSTONES_PATH, 0L).keySet());
+
+        // A fresh tombstone outlives compaction
+        BlockingCallback<Integer> compact = new BlockingCallback<>();
+        repository.compactTombstones(compact);
+        assertEquals(Integer.valueOf(0), compact.await());
+        assertEquals(1, readByChild(CourseRepository.TOMBSTONES_PATH, 0L).size());
+    }
+
+    @Test
+    public void fullSyncFollowsTheLastSuccessfulSyncOnTheDeviceClock() {
+        long now = 1_000_000_000_000L;
+        assertTrue(CourseSync.needsFullSync(0L, now - 1, now));
+        assertTrue(CourseSync.needsFullSync(now, 0L, now));
+        // A quiet catalog keeps an old mark, but a recent sync still reads only the delta
+        assertFalse(CourseSync.needsFullSync(now - CourseSync.TOMBSTONE_TTL_MS * 2, now - 1, now));
+        assertTrue(CourseSync.needsFullSync(now, now - CourseSync.FULL_SYNC_AFTER_MS - 1, now));
+        // Device clock set back before the last sync
+        assertTrue(CourseSync.needsFullSync(now, now + 1, now));
+    }
+
+    @NonNull
+    private Map<String, Object> readByChild(@NonNull String path, long since) throws InterruptedException {
+        BlockingCallback<Map<String, Object>> read = new BlockingCallback<>();
+        dataSource.readByChild(path, CourseMapper.FIELD_UPDATED_AT, since, Long.MAX_VALUE, read);
+        return read.await();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class PushIdsTest {
+
+    @Test
+    public void idsSortInCreationOrder() {
+        PushIds ids = new PushIds(new Random(1));
+        String previous = ids.next(1704067200000L);
+        assertEquals(20, previous.length());
+        for (int i = 0; i < 1000; i++) {
+            // Several ids per millisecond, then a later one
+            String next = ids.next(1704067200000L + i / 10);
+            assertTrue(previous + " !< " + next, previous.compareTo(next) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void laterTimestampSortsAfterEarlierOne() {
+        String earlier = new PushIds(new Random(2)).next(1704067200000L);
+        String later = new PushIds(new Random(3)).next(1704067200001L);
+        assertTrue(earlier.compareTo(later) < 0);
+    }
+}
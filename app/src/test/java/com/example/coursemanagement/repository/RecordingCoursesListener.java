@@ -0,0 +1,57 @@
+package com.example.coursemanagement.repository;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Keeps the latest list a course listener received; a cancelled listener fails the wait at once. */
+final class RecordingCoursesListener implements CourseRepository.CoursesListener {
+
+    interface Condition {
+        boolean isMet(@NonNull List<Course> courses);
+    }
+
+    private List<Course> latest;
+    private Exception error;
+
+    @Override
+    public synchronized void onCoursesUpdated(@NonNull List<Course> courses) {
+        latest = courses;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void onError(@NonNull Exception e) {
+        error = e;
+        notifyAll();
+    }
+
+    @NonNull
+    synchronized List<Course> latest() {
+        if (latest == null) {
+            throw new AssertionError("No list delivered yet");
+        }
+        return latest;
+    }
+
+    /** Waits for the first delivered list that meets {@code condition}, and returns it. */
+    @NonNull
+    synchronized List<Course> awaitList(long timeoutMs, @NonNull Condition condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (error == null && (latest == null || !condition.isMet(latest))) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                throw new AssertionError("No matching list within " + timeoutMs + "ms, last had "
+                        + (latest != null ? latest.size() + " courses" : "not arrived"));
+            }
+            wait(remainingMs);
+        }
+        if (error != null) {
+            throw new AssertionError("Listener cancelled: " + error.getMessage(), error);
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SingleFlightTest {
+
+    @Test
+    public void joinersReceiveTheLeadersResult() {
+        SingleFlight<String> flight = new SingleFlight<>();
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+
+        assertTrue(flight.join("a", first));
+        assertFalse(flight.join("a", second));
+        flight.complete("a", "loaded");
+
+        assertEquals("[loaded]", first.results.toString());
+        assertEquals("[loaded]", second.results.toString());
+        // The key is free again once completed
+        assertTrue(flight.join("a", new Recorder()));
+    }
+
+    @Test
+    public void failureReachesEveryJoinerOfThatKeyOnly() {
+        SingleFlight<String> flight = new SingleFlight<>();
+        Recorder a = new Recorder();
+        Recorder b = new Recorder();
+        flight.join("a", a);
+        flight.join("b", b);
+
+        Exception failure = new Exception("offline");
+        flight.fail("a", failure);
+
+        assertSame(failure, a.errors.get(0));
+        assertTrue(b.errors.isEmpty() && b.results.isEmpty());
+    }
+
+    private static final class Recorder implements CourseRepository.OperationCallback<String> {
+        final List<String> results = new ArrayList<>();
+        final List<Exception> errors = new ArrayList<>();
+
+        @Override
+        public void onSuccess(String result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(@NonNull Exception e) {
+            errors.add(e);
+        }
+    }
+}
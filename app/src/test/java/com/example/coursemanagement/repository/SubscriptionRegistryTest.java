@@ -0,0 +1,35 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SubscriptionRegistryTest {
+
+    private static final CourseDataSource.Registration NOOP = () -> { };
+
+    @Test
+    public void removedUnownedSubscriptionIsNotLeaked() {
+        SubscriptionRegistry registry = new SubscriptionRegistry();
+        CourseDataSource.Registration handle = registry.register(RepositoryMetrics.ListenerKind.COURSES, null, NOOP);
+        assertTrue(registry.findLeaks().isEmpty());
+
+        handle.remove();
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void unownedSubscriptionWhoseHandleIsDroppedIsLeaked() throws Exception {
+        SubscriptionRegistry registry = new SubscriptionRegistry();
+        registry.register(RepositoryMetrics.ListenerKind.COURSES, null, NOOP);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.findLeaks().isEmpty() && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, registry.findLeaks().size());
+        assertEquals(1, registry.size());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import androidx.annotation.NonNull;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SummaryMigrationTest {
+
+    private InMemoryCourseDataSource dataSource;
+    // Runs once on the callback thread ahead of the next callback
+    private final AtomicReference<Runnable> beforeNextCallback = new AtomicReference<>();
+
+    @Before
+    public void setUp() {
+        dataSource = new InMemoryCourseDataSource.Builder()
+                .latency(0, 2)
+                .seed(42L)
+                .callbackExecutor(command -> {
+                    Runnable before = beforeNextCallback.getAndSet(null);
+                    if (before != null) {
+                        before.run();
+                    }
+                    command.run();
+                })
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    public void migrationCopiesFlatCoursesIntoSummaries() throws Exception {
+        writeLegacyCourses(7);
+
+        assertEquals(7, migrate());
+        assertEquals(7, ((Map<?, ?>) read(CourseRepository.SUMMARIES_PATH)).size());
+        assertEquals(7, ((Map<?, ?>) read(CourseCodes.INDEX_PATH)).size());
+        assertEquals("c3", read(CourseCodes.indexPath("MATH 3")));
+    }
+
+    @Test
+    public void migrationDoesNotResurrectCourseDeletedDuringCopy() throws Exception {
+        writeLegacyCourses(3);
+        // Delete c1 as a client would, after the first page is read and before it is written
+        beforeNextCallback.set(() -> {
+            Map<String, Object> delete = new HashMap<>();
+            delete.put(CourseRepository.COURSES_PATH + "/c1", null);
+            delete.put(CourseRepository.tombstonePath("c1"), CourseMapper.tombstoneValue());
+            dataSource.update(delete, new BlockingCallback<>());
+        });
+
+        assertEquals(2, migrate());
+        Map<?, ?> summaries = (Map<?, ?>) read(CourseRepository.SUMMARIES_PATH);
+        assertEquals(2, summaries.size());
+        assertFalse(summaries.containsKey("c1"));
+        assertFalse(((Map<?, ?>) read(CourseCodes.INDEX_PATH)).containsValue("c1"));
+    }
+
+    @Test
+    public void migrationKeepsSummaryEditedDuringCopy() throws Exception {
+        writeLegacyCourses(3);
+        // Rename c1 as a client would, after the first page is read and before it is written
+        beforeNextCallback.set(() -> {
+            Course renamed = new Course("c1", "Renamed", "MATH 1", 3, CourseType.LAB, 1);
+            Map<String, Object> record = CourseMapper.toValue(renamed);
+            record.put(CourseMapper.FIELD_UPDATED_AT, CourseDataSource.SERVER_TIMESTAMP);
+            Map<String, Object> summary = CourseMapper.toSummaryValue(renamed);
+            summary.put(CourseMapper.FIELD_UPDATED_AT, CourseDataSource.SERVER_TIMESTAMP);
+            Map<String, Object> edit = new HashMap<>();
+            edit.put(CourseRepository.COURSES_PATH + "/c1", record);
+            edit.put(CourseRepository.SUMMARIES_PATH + "/c1", summary);
+            dataSource.update(edit, new BlockingCallback<>());
+        });
+
+        assertEquals(2, migrate());
+        assertEquals("Renamed", CourseMapper.fromValue("c1", read(CourseRepository.SUMMARIES_PATH + "/c1")).getCourseName());
+        assertEquals(3, ((Map<?, ?>) read(CourseRepository.SUMMARIES_PATH)).size());
+    }
+
+    @Test
+    public void runIfNeededMigratesEachDatabaseOnce() throws Exception {
+        writeLegacyCourses(2);
+        assertEquals(2, migrateIfNeeded());
+        assertNotNull(read(SummaryMigration.MARKER_PATH));
+
+        // A record added behind the app's back is left for a manual rebuild
+        Map<String, Object> late = new HashMap<>();
+        late.put(CourseRepository.COURSES_PATH + "/c9", CourseMapper.toValue(new Course("c9", "Late", "CS-9", 3, CourseType.LAB, 9)));
+        BlockingCallback<Void> written = new BlockingCallback<>();
+        dataSource.update(late, written);
+        written.await();
+
+        assertEquals(0, migrateIfNeeded());
+        assertEquals(2, ((Map<?, ?>) read(CourseRepository.SUMMARIES_PATH)).size());
+    }
+
+    // Legacy layout: courses only under the flat node, CS and MATH codes alternating
+    private void writeLegacyCourses(int count) throws InterruptedException {
+        Map<String, Object> legacy = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String code = (i % 2 == 0 ? "CS-" : "MATH ") + i;
+            Course course = new Course("c" + i, "Course " + i, code, 3, CourseType.LAB, i);
+            legacy.put(CourseRepository.COURSES_PATH + "/" + course.getId(), CourseMapper.toValue(course));
+        }
+        BlockingCallback<Void> written = new BlockingCallback<>();
+        dataSource.update(legacy, written);
+        written.await();
+    }
+
+    private int migrate() throws InterruptedException {
+        return migrate(false);
+    }
+
+    private int migrateIfNeeded() throws InterruptedException {
+        return migrate(true);
+    }
+
+    private int migrate(boolean ifNeeded) throws InterruptedException {
+        final BlockingCallback<Integer> done = new BlockingCallback<>();
+        SummaryMigration.Listener listener = new SummaryMigration.Listener() {
+            @Override
+            public void onProgress(int count) {
+            }
+
+            @Override
+            public void onComplete(int count, int skipped) {
+                done.onSuccess(count);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                done.onError(e);
+            }
+        };
+        SummaryMigration migration = new SummaryMigration(dataSource, 3);
+        if (ifNeeded) {
+            migration.runIfNeeded(listener);
+        } else {
+            migration.run(listener);
+        }
+        return done.await();
+    }
+
+    private Object read(@NonNull String path) throws InterruptedException {
+        BlockingCallback<Object> read = new BlockingCallback<>();
+        dataSource.read(path, read);
+        return read.await();
+    }
+}
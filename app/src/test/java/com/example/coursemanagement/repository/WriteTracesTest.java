@@ -0,0 +1,88 @@
+package com.example.coursemanagement.repository;
+
+import static org.junit.Assert.assertTrue;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.List;
+
+public class WriteTracesTest {
+
+    private InMemoryCourseDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        dataSource = new InMemoryCourseDataSource.Builder()
+                .latency(0, 2)
+                .seed(42L)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    public void updateTraceFollowsTheWriteToItsBoundRow() throws Exception {
+        CourseRepository repository = new CourseRepository(dataSource);
+        BlockingCallback<String> add = new BlockingCallback<>();
+        repository.addCourse(new Course("", "Optics", "PH-210", 3, CourseType.THEORY, 0L), add);
+        String id = add.await();
+
+        RecordingCoursesListener listener = new RecordingCoursesListener();
+        CourseDataSource.Registration registration = repository.observeAllCourses(listener);
+
+        WriteTrace trace = repository.getWriteTraces().begin(RepositoryMetrics.Operation.UPDATE);
+        BlockingCallback<Void> update = new BlockingCallback<>();
+        repository.updateCourse(new Course(id, "Wave Optics", "PH-210", 4, CourseType.LAB, 0L), trace, update);
+        update.await();
+        List<Course> courses = listener.awaitList(5000,
+                list -> !list.isEmpty() && "Wave Optics".equals(list.get(0).getCourseName()));
+        registration.remove();
+
+        for (WriteTrace.Stage stage : new WriteTrace.Stage[]{WriteTrace.Stage.SUBMIT, WriteTrace.Stage.VALIDATED,
+                WriteTrace.Stage.READ, WriteTrace.Stage.WRITE_ACK, WriteTrace.Stage.LISTENER}) {
+            assertTrue("missing " + stage, trace.has(stage));
+        }
+        // What the list screen reports once the adapter has applied the list and bound the row
+        repository.getWriteTraces().onListSubmitted(courses);
+        repository.getWriteTraces().onRowBound(courses.get(0));
+        assertTrue(trace.has(WriteTrace.Stage.ROWS_BOUND));
+
+        StringWriter dump = new StringWriter();
+        repository.getWriteTraces().dump(new PrintWriter(dump));
+        assertTrue(dump.toString(), dump.toString().contains("#" + trace.getId() + " updateCourse " + id + " ok"));
+    }
+
+    @Test
+    public void updateTraceCompletesFromTheWindowedListsChildEvents() throws Exception {
+        CourseRepository repository = new CourseRepository(dataSource);
+        BlockingCallback<String> add = new BlockingCallback<>();
+        repository.addCourse(new Course("", "Optics", "PH-210", 3, CourseType.THEORY, 0L), add);
+        String id = add.await();
+
+        WriteTrace trace = repository.getWriteTraces().begin(RepositoryMetrics.Operation.UPDATE);
+        Course updated = new Course(id, "Wave Optics", "PH-210", 4, CourseType.LAB, 0L);
+        BlockingCallback<Void> update = new BlockingCallback<>();
+        repository.updateCourse(updated, trace, update);
+        update.await();
+
+        // What WindowedCourseSource and the list screen report in windowed mode
+        repository.getWriteTraces().onChild(id, updated);
+        repository.getWriteTraces().onListSubmitted(Collections.singletonList(updated));
+        repository.getWriteTraces().onRowBound(updated);
+
+        StringWriter dump = new StringWriter();
+        repository.getWriteTraces().dump(new PrintWriter(dump));
+        assertTrue(dump.toString(), dump.toString().contains("#" + trace.getId() + " updateCourse " + id + " ok"));
+    }
+}
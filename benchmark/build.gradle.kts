@@ -0,0 +1,89 @@
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Benchmarks compile the app's Android-free sources directly for the JVM,
+// so the hot paths are measured without a device or the Android toolchain.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include("com/example/coursemanagement/model/**")
+            include("com/example/coursemanagement/repository/CourseMapper.java")
+            include("com/example/coursemanagement/repository/CourseCatalog.java")
+            include("com/example/coursemanagement/adapter/CourseDiff.java")
+        }
+    }
+}
+
+dependencies {
+    compileOnly(libs.androidx.annotation)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    jvmArgs.add("-Xmx3g")
+    resultFormat.set("JSON")
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val baselineFile = layout.projectDirectory.file("baseline.json")
+
+// "CourseSortBenchmark.sortNewestFirst[size=1000]"
+fun benchmarkKey(result: Map<*, *>): String {
+    val name = (result["benchmark"] as String).split('.').takeLast(2).joinToString(".")
+    val params = (result["params"] as Map<*, *>?).orEmpty().entries
+        .sortedBy { it.key as String }
+        .joinToString(",") { "${it.key}=${it.value}" }
+    return if (params.isEmpty()) name else "$name[$params]"
+}
+
+fun readScores(): Map<String, Double> {
+    @Suppress("UNCHECKED_CAST")
+    val results = JsonSlurper().parse(jmhResults.get().asFile) as List<Map<*, *>>
+    return results.associate { result ->
+        benchmarkKey(result) to ((result["primaryMetric"] as Map<*, *>)["score"] as Number).toDouble()
+    }
+}
+
+tasks.register("jmhCheckBaseline") {
+    group = "verification"
+    description = "Runs the benchmarks and fails if any throughput drops below baseline.json by more than the tolerance."
+    dependsOn("jmh")
+    doLast {
+        // Allowed relative drop, e.g. -PbenchmarkTolerance=0.15
+        val tolerance = (findProperty("benchmarkTolerance") as String?)?.toDouble() ?: 0.25
+        @Suppress("UNCHECKED_CAST")
+        val baseline = JsonSlurper().parse(baselineFile.asFile) as Map<String, Number>
+        val regressions = mutableListOf<String>()
+        readScores().forEach { (key, score) ->
+            val expected = baseline[key]?.toDouble()
+            if (expected == null) {
+                logger.warn("No baseline for $key (scored ${"%.1f".format(score)} ops/s)")
+            } else if (score < expected * (1 - tolerance)) {
+                regressions += "$key: ${"%.1f".format(score)} ops/s, baseline ${"%.1f".format(expected)} ops/s"
+            }
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Benchmark regressions beyond ${(tolerance * 100).toInt()}%:\n" + regressions.joinToString("\n"))
+        }
+    }
+}
+
+tasks.register("jmhUpdateBaseline") {
+    group = "benchmark"
+    description = "Replaces baseline.json with the scores from the last jmh run."
+    doLast {
+        val scores = readScores().toSortedMap().mapValues { Math.round(it.value * 10) / 10.0 }
+        baselineFile.asFile.writeText(JsonOutput.prettyPrint(JsonOutput.toJson(scores)) + "\n")
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.coursemanagement;
+
+import com.example.coursemanagement.model.Course;
+import com.example.coursemanagement.model.CourseType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** Deterministic course data shared by the benchmarks. */
+public final class SyntheticCatalog {
+
+    private static final long BASE_TIMESTAMP = 1_700_000_000_000L;
+
+    private SyntheticCatalog() {
+    }
+
+    public static String key(int i) {
+        return String.format("-N%019d", i);
+    }
+
+    /** Raw child value in the shape DataSnapshot.getValue() returns for a stored course. */
+    public static Map<String, Object> rawValue(int i) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("id", key(i));
+        value.put("courseName", "Course number " + i);
+        value.put("courseCode", "CS-" + (100 + i % 400));
+        value.put("creditHours", (long) (1 + i % 4));
+        value.put("courseType", i % 3 == 0 ? "Lab" : "Theory");
+        value.put("timestamp", BASE_TIMESTAMP + i);
+        return value;
+    }
+
+    public static Course course(int i) {
+        return new Course(key(i), "Course number " + i, "CS-" + (100 + i % 400), 1 + i % 4,
+                i % 3 == 0 ? CourseType.LAB : CourseType.THEORY, BASE_TIMESTAMP + i);
+    }
+
+    /** Courses in arrival order, i.e. as an unsorted snapshot would list them. */
+    public static List<Course> shuffledCourses(int size, long seed) {
+        List<Course> courses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            courses.add(course(i));
+        }
+        Collections.shuffle(courses, new Random(seed));
+        return courses;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.coursemanagement.adapter;
+
+import com.example.coursemanagement.SyntheticCatalog;
+import com.example.coursemanagement.model.Course;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The item/content checks CourseAdapter's DiffUtil callback makes for one list update
+ * in which 1% of the courses changed. DiffUtil itself is Android-only, so the benchmark
+ * issues the calls a mostly-unchanged, same-order update produces: one item check and
+ * one content check per position.
+ *
+ * "shared" is the new list as the repository emits it, reusing unchanged instances;
+ * "decoded" is the same list with every course freshly decoded, as before instances
+ * were shared between emissions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseDiffBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"shared", "decoded"})
+    public String emission;
+
+    private Course[] oldList;
+    private Course[] newList;
+
+    @Setup
+    public void setUp() {
+        oldList = new Course[size];
+        newList = new Course[size];
+        for (int i = 0; i < size; i++) {
+            oldList[i] = SyntheticCatalog.course(i);
+            if (i % 100 == 0) {
+                Course old = oldList[i];
+                newList[i] = new Course(old.getId(), old.getCourseName(), old.getCourseCode(),
+                        old.getCreditHours() + 1, old.getType(), old.getTimestamp());
+            } else if ("shared".equals(emission)) {
+                newList[i] = oldList[i];
+            } else {
+                newList[i] = SyntheticCatalog.course(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public int diffUpdate() {
+        int changed = 0;
+        for (int i = 0; i < size; i++) {
+            if (!CourseDiff.sameItem(oldList[i], newList[i])
+                    || !CourseDiff.sameContents(oldList[i], newList[i])) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
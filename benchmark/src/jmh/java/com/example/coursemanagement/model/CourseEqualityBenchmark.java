@@ -0,0 +1,85 @@
+package com.example.coursemanagement.model;
+
+import com.example.coursemanagement.SyntheticCatalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Course.equals and hashCode over whole catalogs: equal but distinct instances (what
+ * two decodes of the same snapshot produce), instances that differ in one field, and
+ * hashing every course into a set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseEqualityBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private Course[] left;
+    private Course[] equalCopies;
+    private Course[] renamedCopies;
+
+    @Setup
+    public void setUp() {
+        left = new Course[size];
+        equalCopies = new Course[size];
+        renamedCopies = new Course[size];
+        for (int i = 0; i < size; i++) {
+            Course course = SyntheticCatalog.course(i);
+            left[i] = course;
+            equalCopies[i] = SyntheticCatalog.course(i);
+            renamedCopies[i] = new Course(course.getId(), course.getCourseName() + " (renamed)",
+                    course.getCourseCode(), course.getCreditHours(), course.getType(), course.getTimestamp());
+        }
+    }
+
+    @Benchmark
+    public int equalsEqualInstances() {
+        int matches = 0;
+        for (int i = 0; i < size; i++) {
+            if (left[i].equals(equalCopies[i])) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int equalsChangedInstances() {
+        int matches = 0;
+        for (int i = 0; i < size; i++) {
+            if (left[i].equals(renamedCopies[i])) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public Set<Course> hashIntoSet() {
+        Set<Course> set = new HashSet<>(size * 4 / 3 + 1);
+        for (Course course : left) {
+            set.add(course);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.coursemanagement.repository;
+
+import com.example.coursemanagement.SyntheticCatalog;
+import com.example.coursemanagement.model.Course;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot decode throughput: the old reflective bean path (no-arg constructor with a
+ * clock read and empty-string defaults, then one setter call per stored field) against
+ * {@link CourseMapper#fromValue}, over the raw child maps Firebase returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseDecodeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<String> keys;
+    private List<Map<String, Object>> values;
+    private Map<String, Method> legacySetters;
+
+    @Setup
+    public void setUp() throws Exception {
+        keys = new ArrayList<>(size);
+        values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add(SyntheticCatalog.key(i));
+            values.add(SyntheticCatalog.rawValue(i));
+        }
+        // Firebase's bean mapper resolves setters once per class and invokes them reflectively
+        legacySetters = new HashMap<>();
+        for (Method method : LegacyCourse.class.getMethods()) {
+            if (method.getName().startsWith("set") && method.getParameterTypes().length == 1) {
+                String property = Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4);
+                legacySetters.put(property, method);
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacyBeanDecode(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < size; i++) {
+            LegacyCourse course = new LegacyCourse();
+            for (Map.Entry<String, Object> field : values.get(i).entrySet()) {
+                Method setter = legacySetters.get(field.getKey());
+                Object arg = field.getValue();
+                if (setter.getParameterTypes()[0] == int.class) {
+                    arg = ((Number) arg).intValue();
+                }
+                setter.invoke(course, arg);
+            }
+            course.setId(keys.get(i));
+            blackhole.consume(course);
+        }
+    }
+
+    @Benchmark
+    public void factoryDecode(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            Course course = CourseMapper.fromValue(keys.get(i), values.get(i));
+            blackhole.consume(course);
+        }
+    }
+
+    /** Shape of Course before the immutable model, as Firebase used to populate it. */
+    public static class LegacyCourse {
+        private String id;
+        private String courseName;
+        private String courseCode;
+        private int creditHours;
+        private String courseType;
+        private long timestamp;
+
+        public LegacyCourse() {
+            this("", "", "", 0, "", System.currentTimeMillis());
+        }
+
+        public LegacyCourse(String id, String courseName, String courseCode, int creditHours, String courseType, long timestamp) {
+            this.id = id;
+            this.courseName = courseName;
+            this.courseCode = courseCode;
+            this.creditHours = creditHours;
+            this.courseType = courseType;
+            this.timestamp = timestamp;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public void setCourseName(String courseName) {
+            this.courseName = courseName;
+        }
+
+        public void setCourseCode(String courseCode) {
+            this.courseCode = courseCode;
+        }
+
+        public void setCreditHours(int creditHours) {
+            this.creditHours = creditHours;
+        }
+
+        public void setCourseType(String courseType) {
+            this.courseType = courseType;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.coursemanagement.repository;
+
+import com.example.coursemanagement.SyntheticCatalog;
+import com.example.coursemanagement.model.Course;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The newest-first timestamp sort applied to every list emission. Each invocation
+ * copies the shuffled snapshot order first; the copy is a small fraction of the sort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseSortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Course> shuffled;
+
+    @Setup
+    public void setUp() {
+        shuffled = SyntheticCatalog.shuffledCourses(size, 42L);
+    }
+
+    @Benchmark
+    public List<Course> sortNewestFirst() {
+        List<Course> courses = new ArrayList<>(shuffled);
+        Collections.sort(courses, CourseCatalog.NEWEST_FIRST);
+        return courses;
+    }
+}
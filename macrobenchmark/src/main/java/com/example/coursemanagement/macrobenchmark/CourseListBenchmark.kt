@@ -0,0 +1,94 @@
+package com.example.coursemanagement.macrobenchmark
+
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.StartupTimingMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.UiObject2
+import androidx.test.uiautomator.Until
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * First-frame and scroll timing of the course list. The list is read from the database the
+ * app is configured with, so the scroll numbers are only comparable between runs against
+ * the same catalog, which should hold a few screens of courses.
+ *
+ * ```
+ * ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest
+ * ```
+ */
+@RunWith(AndroidJUnit4::class)
+class CourseListBenchmark {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    /** Cold start until the course list is on screen. */
+    @Test
+    fun firstFrameCold() = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(StartupTimingMetric(), FrameTimingMetric()),
+        iterations = ITERATIONS,
+        startupMode = StartupMode.COLD,
+        setupBlock = { pressHome() }
+    ) {
+        startActivityAndWait()
+        awaitCourseList()
+    }
+
+    /** Returning to the list from the add-course screen, which recreates the list's view. */
+    @Test
+    fun returnToList() = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(FrameTimingMetric()),
+        iterations = ITERATIONS,
+        startupMode = StartupMode.WARM,
+        setupBlock = {
+            startActivityAndWait()
+            awaitCourseList()
+            device.findObject(By.res(TARGET_PACKAGE, "fabAddCourse")).click()
+            device.waitForIdle()
+        }
+    ) {
+        device.pressBack()
+        awaitCourseList()
+    }
+
+    /** Flinging through the list, including the first scroll after startup. */
+    @Test
+    fun scrollCourseList() = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(FrameTimingMetric()),
+        iterations = ITERATIONS,
+        startupMode = StartupMode.WARM,
+        setupBlock = {
+            startActivityAndWait()
+        }
+    ) {
+        val list = awaitCourseList()
+        // Keeps the gesture clear of the system navigation areas
+        list.setGestureMargin(device.displayWidth / 5)
+        repeat(FLINGS) {
+            list.fling(Direction.DOWN)
+            device.waitForIdle()
+        }
+    }
+
+    private fun MacrobenchmarkScope.awaitCourseList(): UiObject2 =
+        checkNotNull(device.wait(Until.findObject(By.res(TARGET_PACKAGE, "recyclerViewCourses")), LIST_TIMEOUT_MS)) {
+            "Course list did not appear within $LIST_TIMEOUT_MS ms"
+        }
+
+    private companion object {
+        const val TARGET_PACKAGE = "com.example.coursemanagement"
+        const val ITERATIONS = 10
+        const val FLINGS = 3
+        const val LIST_TIMEOUT_MS = 5_000L
+    }
+}